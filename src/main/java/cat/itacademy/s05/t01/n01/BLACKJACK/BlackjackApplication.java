@@ -2,8 +2,10 @@ package cat.itacademy.s05.t01.n01.BLACKJACK;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class BlackjackApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,41 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.EventSourcedGameStore;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameEventLog;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameStore;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.MongoGameEventLog;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.SegmentFileGameEventLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.nio.file.Path;
+
+// Mode esdeveniments (blackjack.event-log.enabled=true): substitueix DocumentGameStore
+@Configuration
+@ConditionalOnProperty(prefix = "blackjack.event-log", name = "enabled", havingValue = "true")
+public class EventLogConfig {
+
+    @Bean
+    public GameEventLog gameEventLog(EventLogProperties properties, ReactiveMongoTemplate mongoTemplate,
+                                     ObjectMapper objectMapper) {
+        return switch (properties.getStore()) {
+            case MONGO -> new MongoGameEventLog(mongoTemplate);
+            case FILE -> new SegmentFileGameEventLog(Path.of(properties.getDirectory()),
+                    properties.getSegmentSize().toBytes(), objectMapper);
+        };
+    }
+
+    @Bean
+    public GameStore gameStore(GameEventLog gameEventLog, EventLogProperties properties,
+                               StatsOutboxProperties outboxProperties) {
+        // L'outbox viu dins del document de la partida, i en aquest mode no n'hi ha
+        if (outboxProperties.isEnabled()) {
+            throw new IllegalStateException("blackjack.stats.outbox needs the document game store: "
+                    + "disable blackjack.event-log or the outbox");
+        }
+        return new EventSourcedGameStore(gameEventLog, properties.getSnapshotEvery());
+    }
+}
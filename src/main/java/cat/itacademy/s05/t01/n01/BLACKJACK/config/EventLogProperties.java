@@ -0,0 +1,22 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.event-log")
+public class EventLogProperties {
+    // Desactivat: cada partida és un document de games
+    private boolean enabled = false;
+    private Store store = Store.MONGO;
+    // Esdeveniments entre instantànies: com a molt, els que cal refer per llegir una partida
+    private int snapshotEvery = 10;
+    // Només per a store=FILE
+    private String directory = "data/game-log";
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    public enum Store {
+        MONGO, FILE
+    }
+}
@@ -0,0 +1,16 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.game-cache")
+public class GameCacheProperties {
+    private boolean enabled = true;
+    // Partides en curs com a màxim a memòria
+    private long maximumSize = 10_000;
+    // Una partida abandonada surt de la cache passat aquest temps sense jugades
+    private Duration expireAfterAccess = Duration.ofMinutes(10);
+}
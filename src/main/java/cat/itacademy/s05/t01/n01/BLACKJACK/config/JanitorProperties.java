@@ -0,0 +1,20 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.janitor")
+public class JanitorProperties {
+    // Desactivat: cap partida s'esborra ni s'arxiva sola
+    private boolean enabled = false;
+    private Duration interval = Duration.ofMinutes(10);
+    // Una partida en curs sense cap jugada durant aquest temps es dona per abandonada i s'esborra
+    private Duration abandonedAfter = Duration.ofHours(24);
+    // Les partides acabades passen a games_archive passat aquest temps
+    private Duration archiveAfter = Duration.ofDays(30);
+    // Partides per lot: una lectura del cursor, un esborrat i (per a l'arxiu) una escriptura
+    private int batchSize = 500;
+}
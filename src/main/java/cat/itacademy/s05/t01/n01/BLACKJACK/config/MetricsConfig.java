@@ -0,0 +1,15 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // r2dbc.query etiqueta cada consulta amb el fil que l'ha llançat: una sèrie nova per cada fil d'event loop
+    @Bean
+    public MeterFilter ignoreR2dbcThreadTag() {
+        return MeterFilter.ignoreTags("r2dbc.thread");
+    }
+}
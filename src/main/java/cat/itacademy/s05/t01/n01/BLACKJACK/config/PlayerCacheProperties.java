@@ -0,0 +1,15 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.player-cache")
+public class PlayerCacheProperties {
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    // Límit per als canvis de nom fets des d'una altra instància
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
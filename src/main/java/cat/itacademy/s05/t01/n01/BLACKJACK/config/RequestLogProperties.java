@@ -0,0 +1,12 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.request-log")
+public class RequestLogProperties {
+    private boolean enabled = true;
+    // Fracció de peticions que deixen una línia al log (0 = només els errors 5xx, 1 = totes)
+    private double sampleRate = 0.01;
+}
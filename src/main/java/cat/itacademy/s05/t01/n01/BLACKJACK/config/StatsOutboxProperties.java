@@ -0,0 +1,17 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.stats.outbox")
+public class StatsOutboxProperties {
+    // Desactivat: la jugada que acaba una partida actualitza MySQL abans de respondre
+    private boolean enabled = false;
+    // Partides per transacció a MySQL
+    private int batchSize = 500;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
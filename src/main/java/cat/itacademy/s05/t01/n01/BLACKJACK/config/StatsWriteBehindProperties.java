@@ -0,0 +1,19 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.stats.write-behind")
+public class StatsWriteBehindProperties {
+    // Desactivat: cada partida acabada fa el seu UPDATE immediatament
+    private boolean enabled = false;
+    // Jugadors per sentència UPDATE
+    private int maxBatchSize = 500;
+    // Jugadors pendents a partir dels quals les noves partides esperen un flush
+    private int maxPendingPlayers = 10_000;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
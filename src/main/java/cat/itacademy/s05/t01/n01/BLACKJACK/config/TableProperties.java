@@ -0,0 +1,12 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.table")
+public class TableProperties {
+    private int maxSeats = 7;
+    // Baralles del shoe compartit; ha de tenir prou cartes per a una mà sencera de tots els seients
+    private int decks = 6;
+}
@@ -0,0 +1,17 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "blackjack.tracing")
+public class TracingProperties {
+    // Peticions mostrejades que triguen més que això s'escriuen al log amb el desglossament per span
+    private Duration slowRequestThreshold = Duration.ofMillis(500);
+    // Traces acabades que es guarden en memòria (les més recents)
+    private int maxTraces = 200;
+    // Traces a mig arribar; si s'omple, les més velles es descarten
+    private int maxOpenTraces = 10_000;
+}
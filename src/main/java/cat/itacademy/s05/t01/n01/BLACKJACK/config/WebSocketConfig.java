@@ -0,0 +1,22 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.config;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.controllers.GameSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+
+    // Abans dels controladors: /ws/** no és cap endpoint REST
+    @Bean
+    public HandlerMapping gameSocketMapping(GameSocketHandler handler) {
+        return new SimpleUrlHandlerMapping(Map.of(
+                GameSocketHandler.GAME_PATH + "*", handler,
+                GameSocketHandler.TABLE_PATH + "*", handler), Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -2,7 +2,9 @@ package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
 
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateGameRequest;
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlaySequenceRequest;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
 import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,9 +13,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/game")
 @RequiredArgsConstructor
@@ -30,6 +36,16 @@ public class GameController {
         return gameService.createGame(request);
     }
 
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)  // Spring: POST /game/batch
+    @ResponseStatus(HttpStatus.CREATED)     // Spring: retorna codi 201
+    @Operation(summary = "Create games in batch",
+            description = "Creates up to 1000 games with one player lookup and one Mongo insert, streamed as NDJSON")  // 📖 Swagger
+    @ApiResponse(responseCode = "201", description = "Games created successfully")           // 📖 Swagger
+    @ApiResponse(responseCode = "400", description = "Empty, oversized or invalid batch")    // 📖 Swagger
+    public Flux<Game> createGames(@RequestBody List<CreateGameRequest> requests) {
+        return gameService.createGames(requests);
+    }
+
     @GetMapping("/{id}")                    // Spring: GET /game/{id}
     @Operation(summary = "Get game details", description = "Retrieves details of a specific game")  // 📖 Swagger
     @ApiResponse(responseCode = "200", description = "Game found")                                   // 📖 Swagger
@@ -39,17 +55,42 @@ public class GameController {
         return gameService.getGame(id);
     }
 
+    @GetMapping("/{id}/events")             // Spring: GET /game/{id}/events
+    @Operation(summary = "Get game history",
+            description = "Every deal, hit, stand and settle of a game in order (needs the event log enabled)")  // 📖 Swagger
+    @ApiResponse(responseCode = "200", description = "Game history")                                         // 📖 Swagger
+    @ApiResponse(responseCode = "400", description = "Event log not enabled")                                // 📖 Swagger
+    @ApiResponse(responseCode = "404", description = "Game not found")                                       // 📖 Swagger
+    public Flux<GameLogEvent> getGameHistory(
+            @Parameter(description = "Game ID") @PathVariable String id) {  // 📖 Swagger: documenta paràmetre
+        return gameService.getGameHistory(id);
+    }
+
     @PostMapping("/{id}/play")              // Spring: POST /game/{id}/play
     @Operation(summary = "Make a play", description = "Makes a play in an existing game")  // 📖 Swagger
     @ApiResponse(responseCode = "200", description = "Play executed successfully")         // 📖 Swagger
     @ApiResponse(responseCode = "404", description = "Game not found")                     // 📖 Swagger
     @ApiResponse(responseCode = "400", description = "Invalid game state")                 // 📖 Swagger
+    @ApiResponse(responseCode = "409", description = "Game modified by another request")   // 📖 Swagger
     public Mono<Game> playGame(
             @Parameter(description = "Game ID") @PathVariable String id,
             @Valid @RequestBody PlayRequest playRequest) {
         return gameService.playGame(id, playRequest);
     }
 
+    @PostMapping("/{id}/plays")             // Spring: POST /game/{id}/plays
+    @Operation(summary = "Make several plays",
+            description = "Applies a list of actions or a hit-until policy, saves once and returns the state after each play")  // 📖 Swagger
+    @ApiResponse(responseCode = "200", description = "Plays executed successfully")        // 📖 Swagger
+    @ApiResponse(responseCode = "404", description = "Game not found")                     // 📖 Swagger
+    @ApiResponse(responseCode = "400", description = "Invalid request or game state")      // 📖 Swagger
+    @ApiResponse(responseCode = "409", description = "Game modified by another request")   // 📖 Swagger
+    public Flux<Game> playSequence(
+            @Parameter(description = "Game ID") @PathVariable String id,
+            @Valid @RequestBody PlaySequenceRequest request) {
+        return gameService.playSequence(id, request);
+    }
+
     @DeleteMapping("/{id}/delete")          // Spring: DELETE /game/{id}/delete
     @ResponseStatus(HttpStatus.NO_CONTENT)  // Spring: retorna codi 204
     @Operation(summary = "Delete game", description = "Deletes an existing game")  // 📖 Swagger
@@ -0,0 +1,103 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.GameEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayCommand;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.InvalidGameException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameEvents;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameService;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.TableService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+// WebSocket /ws/game/{id} i /ws/table/{id}: primer l'estat sencer, després només els canvis.
+// Pel mateix socket s'hi poden enviar jugades ({"action": "HIT"}, amb "seat" a les taules);
+// el resultat arriba com a canvis, igual que als altres clients connectats.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameSocketHandler implements WebSocketHandler {
+
+    public static final String GAME_PATH = "/ws/game/";
+    public static final String TABLE_PATH = "/ws/table/";
+
+    private final GameService gameService;
+    private final TableService tableService;
+    private final GameEvents events;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        String path = session.getHandshakeInfo().getUri().getPath();
+        boolean table = path.startsWith(TABLE_PATH);
+        String id = path.substring(table ? TABLE_PATH.length() : GAME_PATH.length());
+
+        // Errors de les jugades d'aquest client (només a ell)
+        Sinks.Many<GameEvent> replies = Sinks.many().unicast().onBackpressureBuffer();
+
+        // Els canvis se subscriuen abans de llegir l'estat: cap jugada queda entre tots dos.
+        // Una jugada feta mentre es llegeix pot arribar també com a canvi; porta la versió i el client
+        // descarta els canvis amb una versió que l'estat ja inclou
+        Sinks.Empty<Void> watching = Sinks.empty();
+        Flux<GameEvent> snapshot = Mono.defer(() -> {
+            watching.tryEmitEmpty();
+            return table
+                    ? tableService.getTable(id).map(GameEvent::snapshot)
+                    : gameService.getGame(id).map(GameEvent::snapshot);
+        }).flux();
+        Flux<GameEvent> updates = LiveUpdates.snapshotThenChanges(snapshot, events.watch(id))
+                .onErrorResume(error -> Mono.just(GameEvent.error(error.getMessage())))
+                // Només acaba si la partida no existeix: després d'avisar s'acaba l'enviament i WebFlux tanca el socket
+                .doOnComplete(replies::tryEmitComplete);
+
+        // Les jugades d'aquest client s'apliquen quan ja rep els canvis (també els seus)
+        Mono<Void> commands = watching.asMono()
+                .thenMany(session.receive())
+                .map(WebSocketMessage::getPayloadAsText)
+                .concatMap(text -> play(table, id, text)
+                        .onErrorResume(error -> {
+                            replies.tryEmitNext(GameEvent.error(error.getMessage()));
+                            return Mono.empty();
+                        }))
+                .then();
+
+        Mono<Void> output = session.send(Flux.merge(updates, replies.asFlux())
+                .map(event -> session.textMessage(toJson(event))));
+        return Mono.firstWithSignal(output, commands);
+    }
+
+    private Mono<?> play(boolean table, String id, String text) {
+        PlayCommand command;
+        try {
+            command = objectMapper.readValue(text, PlayCommand.class);
+        } catch (JsonProcessingException e) {
+            return Mono.error(new InvalidGameException("Invalid play command"));
+        }
+        if (command.getAction() == null || (table && command.getSeat() == null)) {
+            return Mono.error(new InvalidGameException(table ? "A table play needs a seat and an action" : "Action is required"));
+        }
+
+        PlayRequest request = new PlayRequest();
+        request.setAction(command.getAction());
+        return table
+                ? tableService.playSeat(id, command.getSeat(), request)
+                : gameService.playGame(id, request);
+    }
+
+    private String toJson(GameEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize game event", e);
+        }
+    }
+}
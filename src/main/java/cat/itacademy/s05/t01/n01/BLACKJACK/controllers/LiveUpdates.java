@@ -0,0 +1,35 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+// Estat sencer i després els canvis, sense forat entre tots dos: els canvis se subscriuen primer
+// i l'estat es llegeix quan la subscripció ja està registrada. L'estat ha de ser mandrós (Flux.defer).
+// Els canvis que arriben mentrestant s'esperen en una cua fitada; si s'omple, es descarten els nous.
+@Slf4j
+final class LiveUpdates {
+
+    private static final int PENDING_BUFFER = 256;
+
+    private LiveUpdates() {
+    }
+
+    static <T> Flux<T> snapshotThenChanges(Flux<T> snapshot, Flux<T> changes) {
+        return Flux.defer(() -> {
+            Sinks.Many<T> pending = Sinks.many().unicast().onBackpressureBuffer(Queues.<T>get(PENDING_BUFFER).get());
+            Disposable watch = changes.subscribe(
+                    change -> {
+                        if (pending.tryEmitNext(change).isFailure()) {
+                            log.debug("Dropped a change for a slow client");
+                        }
+                    },
+                    pending::tryEmitError,
+                    pending::tryEmitComplete);
+            return Flux.concat(snapshot, pending.asFlux())
+                    .doFinally(signal -> watch.dispose());
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
 
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankedPlayer;
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.UpdatePlayerRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.BlackjackException;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
 import cat.itacademy.s05.t01.n01.BLACKJACK.services.PlayerService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +11,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -20,11 +24,70 @@ public class PlayerController {
 
     private final PlayerService playerService;
 
-    @GetMapping("/ranking")         // Spring: GET /ranking
-    @Operation(summary = "Get player ranking", description = "Retrieves the ranking of all players")  // 📖 Swagger
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @GetMapping(value = "/ranking",  // Spring: GET /ranking, com a array JSON o una línia per jugador
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get player ranking",
+            description = "Retrieves the ranking of all players, the top N, the page after a player or the players around one")  // 📖 Swagger
     @ApiResponse(responseCode = "200", description = "Ranking retrieved successfully")                 // 📖 Swagger
-    public Flux<Player> getRanking() {
-        return playerService.getRanking();
+    @ApiResponse(responseCode = "400", description = "Limit out of range")                             // 📖 Swagger
+    @ApiResponse(responseCode = "404", description = "Cursor player not found")                        // 📖 Swagger
+    public Flux<Player> getRanking(
+            @Parameter(description = "Maximum number of players (1-100)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "ID of the last player of the previous page") @RequestParam(required = false) Long after,
+            @Parameter(description = "ID of the player to center the page on") @RequestParam(required = false) Long playerId) {
+        if (limit != null && !isValidPageSize(limit)) {
+            return Flux.error(invalidPageSize());
+        }
+        if (playerId != null) {
+            return playerService.getRankingAround(playerId, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        }
+        if (after != null) {
+            return playerService.getRankingAfter(after, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        }
+        return limit == null ? playerService.getRanking() : playerService.getTopPlayers(limit);
+    }
+
+    @GetMapping(value = "/ranking", produces = MediaType.TEXT_EVENT_STREAM_VALUE)  // Spring: GET /ranking com a SSE
+    @Operation(summary = "Stream player ranking",
+            description = "Streams the ranking as server-sent events and, in live mode, the rank changes as games settle")  // 📖 Swagger
+    @ApiResponse(responseCode = "200", description = "Ranking stream opened")          // 📖 Swagger
+    @ApiResponse(responseCode = "400", description = "Limit out of range")             // 📖 Swagger
+    public Flux<ServerSentEvent<Object>> streamRanking(
+            @Parameter(description = "Maximum number of players (1-100)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Keep the stream open and push rank changes") @RequestParam(defaultValue = "false") boolean live) {
+        if (limit != null && !isValidPageSize(limit)) {
+            return Flux.error(invalidPageSize());
+        }
+        // Mandrós: el rànquing es llegeix en subscriure's, no en muntar la resposta
+        Flux<ServerSentEvent<Object>> ranking = Flux.defer(() -> limit == null
+                        ? playerService.getRanking()
+                        : playerService.getTopPlayers(limit))
+                .index()
+                .map(ranked -> ServerSentEvent.builder((Object) new RankedPlayer(ranked.getT1().intValue() + 1, ranked.getT2()))
+                        .event("player")
+                        .build());
+        if (!live) {
+            return ranking;
+        }
+
+        // Els canvis se subscriuen abans de llegir el rànquing i s'envien quan acaba
+        Flux<ServerSentEvent<Object>> changes = playerService.getRankingChanges()
+                .map(change -> ServerSentEvent.builder((Object) change)
+                        .event("rank-change")
+                        .build());
+        return LiveUpdates.snapshotThenChanges(ranking, changes);
+    }
+
+    @GetMapping("/ranking/{playerId}")  // Spring: GET /ranking/{playerId}
+    @Operation(summary = "Get player rank", description = "Retrieves the position of a player in the ranking")  // 📖 Swagger
+    @ApiResponse(responseCode = "200", description = "Rank retrieved successfully")                          // 📖 Swagger
+    @ApiResponse(responseCode = "404", description = "Player not found")                                     // 📖 Swagger
+    public Mono<RankedPlayer> getPlayerRank(
+            @Parameter(description = "Player ID") @PathVariable Long playerId) {
+        return playerService.getPlayerRank(playerId);
     }
 
     @PutMapping("/player/{playerId}")  // Spring: PUT /player/{playerId}
@@ -36,4 +99,13 @@ public class PlayerController {
             @Valid @RequestBody UpdatePlayerRequest request) {
         return playerService.updatePlayerName(playerId, request.getName());
     }
+
+    // El límit es fita aquí perquè ni l'índex en memòria ni el LIMIT de SQL rebin valors desmesurats
+    private static boolean isValidPageSize(int limit) {
+        return limit >= 1 && limit <= MAX_PAGE_SIZE;
+    }
+
+    private static BlackjackException invalidPageSize() {
+        return new BlackjackException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
 }
\ No newline at end of file
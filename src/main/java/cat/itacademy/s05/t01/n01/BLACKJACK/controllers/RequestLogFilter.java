@@ -0,0 +1,59 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.RequestLogProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Log d'accés mostrejat: una línia per a una fracció de les peticions i per a tots els errors 5xx.
+// La decisió de mostreig es pren en entrar, abans de formatar res.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "blackjack.request-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RequestLogFilter implements WebFilter {
+
+    private final RequestLogProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!log.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    // Sense estat explícit, WebFlux respon 200
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status == null) {
+                        status = HttpStatus.OK;
+                    }
+                    boolean failed = signal == SignalType.ON_ERROR || status.is5xxServerError();
+                    if (sampled || failed) {
+                        log.info("{} {} -> {} in {} ms", exchange.getRequest().getMethod(),
+                                exchange.getRequest().getPath().value(),
+                                switch (signal) {
+                                    case ON_COMPLETE -> status;
+                                    case ON_ERROR -> "error";
+                                    default -> "cancelled";
+                                },
+                                (System.nanoTime() - start) / 1_000_000);
+                    }
+                });
+    }
+}
@@ -0,0 +1,68 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateTableRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.TableService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/table")
+@RequiredArgsConstructor
+@Tag(name = "Table", description = "Multi-seat Blackjack tables sharing one dealer hand and one shoe")
+public class TableController {
+
+    private final TableService tableService;
+
+    @PostMapping("/new")                    // Spring: POST /table/new
+    @ResponseStatus(HttpStatus.CREATED)     // Spring: retorna codi 201
+    @Operation(summary = "Open a table", description = "Seats every player at one table and deals the first round")  // 📖 Swagger
+    @ApiResponse(responseCode = "201", description = "Table created successfully")           // 📖 Swagger
+    @ApiResponse(responseCode = "400", description = "No seats or too many seats")           // 📖 Swagger
+    public Mono<GameTable> createTable(@Valid @RequestBody CreateTableRequest request) {
+        return tableService.createTable(request);
+    }
+
+    @GetMapping("/{id}")                    // Spring: GET /table/{id}
+    @Operation(summary = "Get table details", description = "Retrieves the seats and dealer hand of the current round")  // 📖 Swagger
+    @ApiResponse(responseCode = "200", description = "Table found")                                                  // 📖 Swagger
+    @ApiResponse(responseCode = "404", description = "Table not found")                                              // 📖 Swagger
+    public Mono<GameTable> getTable(
+            @Parameter(description = "Table ID") @PathVariable String id) {  // 📖 Swagger: documenta paràmetre
+        return tableService.getTable(id);
+    }
+
+    @PostMapping("/{id}/seats/{seat}/play") // Spring: POST /table/{id}/seats/{seat}/play
+    @Operation(summary = "Make a play for one seat",
+            description = "When the last seat finishes, the dealer plays once and the whole round is settled")  // 📖 Swagger
+    @ApiResponse(responseCode = "200", description = "Play executed successfully")         // 📖 Swagger
+    @ApiResponse(responseCode = "404", description = "Table not found")                    // 📖 Swagger
+    @ApiResponse(responseCode = "400", description = "Invalid seat or round state")        // 📖 Swagger
+    @ApiResponse(responseCode = "409", description = "Table modified by another request")  // 📖 Swagger
+    public Mono<GameTable> playSeat(
+            @Parameter(description = "Table ID") @PathVariable String id,
+            @Parameter(description = "Seat index, from 0") @PathVariable int seat,
+            @Valid @RequestBody PlayRequest playRequest) {
+        return tableService.playSeat(id, seat, playRequest);
+    }
+
+    @PostMapping("/{id}/round")             // Spring: POST /table/{id}/round
+    @Operation(summary = "Deal the next round",
+            description = "Deals a new round to the same seats from the same shoe, reshuffling it when it runs low")  // 📖 Swagger
+    @ApiResponse(responseCode = "200", description = "Round dealt successfully")           // 📖 Swagger
+    @ApiResponse(responseCode = "404", description = "Table not found")                    // 📖 Swagger
+    @ApiResponse(responseCode = "400", description = "Current round not settled yet")      // 📖 Swagger
+    @ApiResponse(responseCode = "409", description = "Table modified by another request")  // 📖 Swagger
+    public Mono<GameTable> nextRound(
+            @Parameter(description = "Table ID") @PathVariable String id) {
+        return tableService.nextRound(id);
+    }
+}
@@ -0,0 +1,50 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.converters;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.CardCodec;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Desa una mà com a binari (un byte per carta) i encara llegeix la llista de subdocuments antiga
+public class CardListConverter implements MongoValueConverter<List<Card>, Object> {
+
+    @Override
+    public List<Card> read(Object value, MongoConversionContext context) {
+        if (value instanceof Binary binary) {
+            return CardCodec.decodeHand(binary.getData());
+        }
+        if (value instanceof byte[] bytes) {
+            return CardCodec.decodeHand(bytes);
+        }
+        if (value instanceof List<?> legacy) {
+            List<Card> cards = new ArrayList<>(legacy.size() + 4);
+            for (Object element : legacy) {
+                cards.add(readLegacyCard(element));
+            }
+            return cards;
+        }
+        throw new IllegalArgumentException("Unsupported hand encoding: " + value.getClass().getName());
+    }
+
+    @Override
+    public Object write(List<Card> value, MongoConversionContext context) {
+        return CardCodec.encodeHand(value);
+    }
+
+    private Card readLegacyCard(Object element) {
+        // Format antic: {suit: "HEARTS", rank: "TEN"}
+        if (element instanceof Document document) {
+            return Card.of(Card.Suit.valueOf(document.getString("suit")),
+                    Card.Rank.valueOf(document.getString("rank")));
+        }
+        if (element instanceof Number code) {
+            return CardCodec.decode(code.byteValue());
+        }
+        throw new IllegalArgumentException("Unsupported card encoding: " + element);
+    }
+}
@@ -0,0 +1,17 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request to open a table: one seat per player, all sharing the dealer hand and the shoe")
+public class CreateTableRequest {
+    @NotEmpty(message = "A table needs at least one seat")
+    @Valid
+    @Schema(description = "Seats in playing order")
+    private List<CreateGameRequest> seats;
+}
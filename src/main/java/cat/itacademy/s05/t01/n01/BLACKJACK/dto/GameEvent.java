@@ -0,0 +1,65 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.dto;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Un canvi d'una partida o taula enviat pel WebSocket; només porta els camps del seu tipus
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "A change to a game or table pushed over the WebSocket")
+public class GameEvent {
+    private Type type;
+    @Schema(description = "Seat index for table events", example = "0")
+    private Integer seat;
+    private Hand hand;
+    private Card card;
+    private Integer score;
+    @Schema(description = "Game status for a settled hand", example = "PLAYER_WIN")
+    private String status;
+    private Double winnings;
+    private Integer round;
+    @Schema(description = "Full game or table, only in the first event")
+    private Object state;
+    private String message;
+    @Schema(description = "Game or table version after the change; changes up to the snapshot version are already in it",
+            example = "3")
+    private Long version;
+
+    public enum Type {
+        SNAPSHOT,
+        CARD_DEALT,
+        SCORE_CHANGED,
+        STOOD,
+        SETTLED,
+        ROUND_STARTED,
+        ROUND_SETTLED,
+        ERROR
+    }
+
+    public enum Hand {
+        PLAYER,
+        DEALER
+    }
+
+    public static GameEvent snapshot(Game game) {
+        return GameEvent.builder().type(Type.SNAPSHOT).state(game).version(game.getVersion()).build();
+    }
+
+    public static GameEvent snapshot(GameTable table) {
+        return GameEvent.builder().type(Type.SNAPSHOT).state(table).version(table.getVersion()).build();
+    }
+
+    public static GameEvent error(String message) {
+        return GameEvent.builder().type(Type.ERROR).message(message).build();
+    }
+}
@@ -0,0 +1,14 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "A play sent over the WebSocket; the seat is only used on tables")
+public class PlayCommand {
+    @Schema(description = "Seat index, from 0", example = "0")
+    private Integer seat;
+
+    @Schema(description = "Player action", example = "HIT")
+    private PlayRequest.PlayAction action;
+}
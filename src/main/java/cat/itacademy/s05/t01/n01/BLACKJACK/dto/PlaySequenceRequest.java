@@ -0,0 +1,24 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.dto;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest.PlayAction;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request to make several plays at once: either a list of actions or a hit-until policy")
+public class PlaySequenceRequest {
+    @Size(min = 1, max = 20, message = "Between 1 and 20 actions are allowed")
+    @Schema(description = "Actions applied in order", example = "[\"HIT\", \"STAND\"]")
+    private List<@NotNull(message = "Actions cannot be null") PlayAction> actions;
+
+    @Min(value = 2, message = "Hit-until target must be at least 2")
+    @Max(value = 21, message = "Hit-until target must be at most 21")
+    @Schema(description = "Hit while the player score is below this value, then stand", example = "17")
+    private Integer hitUntil;
+}
@@ -0,0 +1,19 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.dto;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A player moved in the ranking after its stats changed")
+public class RankChange {
+    @Schema(description = "Previous position, null for a new player", example = "7")
+    private Integer previousRank;
+    @Schema(description = "New position, null if the player left the ranking", example = "5")
+    private Integer rank;
+    private Player player;
+}
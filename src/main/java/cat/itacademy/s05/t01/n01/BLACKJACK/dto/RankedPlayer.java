@@ -0,0 +1,17 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.dto;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Player with its position in the ranking")
+public class RankedPlayer {
+    @Schema(description = "Position in the ranking, starting at 1", example = "3")
+    private int rank;
+    private Player player;
+}
@@ -0,0 +1,66 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.engine;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+
+// Regles del joc sense Mongo ni Reactor: les fan servir GameServiceImplement, les estadístiques i el simulador.
+// Cap mètode crea objectes (les cartes són instàncies compartides).
+public final class BlackjackRules {
+
+    public static final int DEALER_STANDS_ON = 17;
+    public static final double BLACKJACK_PAYOUT = 1.5;
+
+    private BlackjackRules() {
+    }
+
+    public static Card deal(Shoe shoe, HandValue hand) {
+        Card card = shoe.draw();
+        hand.add(card);
+        return card;
+    }
+
+    // Després de repartir les dues primeres cartes
+    public static GameStatus afterDeal(HandValue playerHand) {
+        return playerHand.isBlackjack() ? GameStatus.PLAYER_BLACKJACK : GameStatus.IN_PROGRESS;
+    }
+
+    public static GameStatus afterHit(HandValue playerHand) {
+        return playerHand.isBust() ? GameStatus.PLAYER_BUST : GameStatus.IN_PROGRESS;
+    }
+
+    // La casa demana carta fins a 17
+    public static boolean dealerMustHit(HandValue dealerHand) {
+        return dealerHand.getScore() < DEALER_STANDS_ON;
+    }
+
+    // Quan el jugador es planta i la casa ja ha jugat
+    public static GameStatus settle(HandValue playerHand, HandValue dealerHand) {
+        int playerScore = playerHand.getScore();
+        int dealerScore = dealerHand.getScore();
+
+        if (dealerScore > 21) {
+            return GameStatus.DEALER_BUST;
+        } else if (playerScore > dealerScore) {
+            return GameStatus.PLAYER_WIN;
+        } else if (dealerScore > playerScore) {
+            return GameStatus.DEALER_WIN;
+        }
+        return GameStatus.PUSH;
+    }
+
+    public static boolean playerWins(GameStatus status) {
+        return winnings(status, 1.0) > 0;
+    }
+
+    // Guany net del jugador per a una aposta
+    public static double winnings(GameStatus status, double bet) {
+        return switch (status) {
+            case PLAYER_BLACKJACK -> bet * BLACKJACK_PAYOUT;
+            case PLAYER_WIN, DEALER_BUST -> bet;
+            case PLAYER_BUST, DEALER_WIN -> -bet;
+            case PUSH, IN_PROGRESS -> 0.0;
+        };
+    }
+}
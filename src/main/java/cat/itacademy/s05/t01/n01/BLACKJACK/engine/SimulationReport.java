@@ -0,0 +1,46 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.engine;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Resultat agregat d'una simulació; els guanys són per unitat apostada
+public record SimulationReport(long hands,
+                               double houseEdge,
+                               double standardError,
+                               double playerBustRate,
+                               double dealerBustRate,
+                               Map<GameStatus, Long> outcomes,
+                               Map<Double, Double> payoutDistribution) {
+
+    static SimulationReport of(long[] outcomeCounts, double payoutSum, double payoutSquares) {
+        long total = 0;
+        Map<GameStatus, Long> outcomes = new EnumMap<>(GameStatus.class);
+        for (GameStatus status : GameStatus.values()) {
+            total += outcomeCounts[status.ordinal()];
+            if (outcomeCounts[status.ordinal()] > 0) {
+                outcomes.put(status, outcomeCounts[status.ordinal()]);
+            }
+        }
+        long hands = total;
+        if (hands == 0) {
+            return new SimulationReport(0, 0.0, 0.0, 0.0, 0.0, outcomes, Map.of());
+        }
+
+        Map<Double, Double> distribution = new TreeMap<>();
+        outcomes.forEach((status, count) ->
+                distribution.merge(BlackjackRules.winnings(status, 1.0), (double) count / hands, Double::sum));
+
+        double mean = payoutSum / hands;
+        double variance = payoutSquares / hands - mean * mean;
+        return new SimulationReport(hands,
+                -mean,
+                Math.sqrt(variance / hands),
+                (double) outcomes.getOrDefault(GameStatus.PLAYER_BUST, 0L) / hands,
+                (double) outcomes.getOrDefault(GameStatus.DEALER_BUST, 0L) / hands,
+                outcomes,
+                distribution);
+    }
+}
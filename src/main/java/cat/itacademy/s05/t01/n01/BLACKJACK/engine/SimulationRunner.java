@@ -0,0 +1,38 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.engine;
+
+import java.util.Locale;
+
+// Simulació des de línia d'ordres, sense arrencar Spring:
+// java -cp target/classes cat.itacademy.s05.t01.n01.BLACKJACK.engine.SimulationRunner <mans> [baralles] [basic|hitN] [llavor]
+public final class SimulationRunner {
+
+    private SimulationRunner() {
+    }
+
+    public static void main(String[] args) {
+        long hands = args.length > 0 ? Long.parseLong(args[0].replace("_", "")) : 10_000_000L;
+        int decks = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        String strategyName = args.length > 2 ? args[2] : "basic";
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        Strategy strategy = strategyName.startsWith("hit")
+                ? Strategy.hitUntil(Integer.parseInt(strategyName.substring(3)))
+                : Strategy.basic();
+
+        long start = System.nanoTime();
+        SimulationReport report = new Simulator(decks, strategy).run(hands, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "Hands:            %,d (%d deck(s), strategy %s, seed %d)%n",
+                report.hands(), decks, strategyName, seed);
+        System.out.printf(Locale.ROOT, "Throughput:       %,.0f hands/s on %d cores%n",
+                report.hands() / seconds, Runtime.getRuntime().availableProcessors());
+        System.out.printf(Locale.ROOT, "House edge:       %.4f%% (+/- %.4f%% at 95%%)%n",
+                report.houseEdge() * 100, report.standardError() * 196);
+        System.out.printf(Locale.ROOT, "Player bust rate: %.4f%%%n", report.playerBustRate() * 100);
+        System.out.printf(Locale.ROOT, "Dealer bust rate: %.4f%%%n", report.dealerBustRate() * 100);
+        report.outcomes().forEach((status, count) -> System.out.printf(Locale.ROOT, "  %-17s %,d%n", status, count));
+        report.payoutDistribution().forEach((payout, frequency) ->
+                System.out.printf(Locale.ROOT, "  payout %+5.1f     %.4f%%%n", payout, frequency * 100));
+    }
+}
@@ -0,0 +1,105 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.engine;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Juga mans com el servei (shoe nou per partida, mateixes BlackjackRules) repartides entre tots els nuclis.
+// Cada tros té el seu SplittableRandom derivat de la llavor: el resultat no depèn del nombre de fils.
+public final class Simulator {
+
+    private static final long HANDS_PER_CHUNK = 1L << 20;
+
+    private final int decks;
+    private final Strategy strategy;
+
+    public Simulator(int decks, Strategy strategy) {
+        if (decks < 1) {
+            throw new IllegalArgumentException("A shoe needs at least one deck");
+        }
+        this.decks = decks;
+        this.strategy = strategy;
+    }
+
+    public SimulationReport run(long hands, long seed) {
+        if (hands < 1) {
+            throw new IllegalArgumentException("At least one hand must be played");
+        }
+
+        int chunks = (int) ((hands + HANDS_PER_CHUNK - 1) / HANDS_PER_CHUNK);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+
+        Tally total = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> playChunk(Math.min(HANDS_PER_CHUNK, hands - i * HANDS_PER_CHUNK), randoms[i]))
+                .reduce(new Tally(), Tally::merge);
+        return SimulationReport.of(total.outcomes, total.payoutSum, total.payoutSquares);
+    }
+
+    // Bucle calent: reutilitza el shoe i les mans, no crea cap objecte per mà
+    private Tally playChunk(long hands, SplittableRandom random) {
+        Tally tally = new Tally();
+        Shoe shoe = Shoe.shuffled(decks, random);
+        HandValue playerHand = new HandValue();
+        HandValue dealerHand = new HandValue();
+
+        for (long hand = 0; hand < hands; hand++) {
+            shoe.shuffle(random);
+            playerHand.reset();
+            dealerHand.reset();
+
+            GameStatus status = playHand(shoe, playerHand, dealerHand);
+            double payout = BlackjackRules.winnings(status, 1.0);
+            tally.outcomes[status.ordinal()]++;
+            tally.payoutSum += payout;
+            tally.payoutSquares += payout * payout;
+        }
+        return tally;
+    }
+
+    // Mateix ordre que GameServiceImplement: repartir, jugar el jugador, jugar la casa
+    GameStatus playHand(Shoe shoe, HandValue playerHand, HandValue dealerHand) {
+        BlackjackRules.deal(shoe, playerHand);
+        Card upCard = BlackjackRules.deal(shoe, dealerHand);
+        BlackjackRules.deal(shoe, playerHand);
+        BlackjackRules.deal(shoe, dealerHand);
+
+        GameStatus status = BlackjackRules.afterDeal(playerHand);
+        while (status == GameStatus.IN_PROGRESS && strategy.hit(playerHand, upCard.getValue())) {
+            BlackjackRules.deal(shoe, playerHand);
+            status = BlackjackRules.afterHit(playerHand);
+        }
+        if (status != GameStatus.IN_PROGRESS) {
+            return status;
+        }
+
+        while (BlackjackRules.dealerMustHit(dealerHand)) {
+            BlackjackRules.deal(shoe, dealerHand);
+        }
+        return BlackjackRules.settle(playerHand, dealerHand);
+    }
+
+    private static final class Tally {
+        private final long[] outcomes = new long[GameStatus.values().length];
+        private double payoutSum;
+        private double payoutSquares;
+
+        private Tally merge(Tally other) {
+            Tally merged = new Tally();
+            for (int i = 0; i < outcomes.length; i++) {
+                merged.outcomes[i] = outcomes[i] + other.outcomes[i];
+            }
+            merged.payoutSum = payoutSum + other.payoutSum;
+            merged.payoutSquares = payoutSquares + other.payoutSquares;
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.engine;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+
+// Estratègia fixa del jugador simulat: només HIT o STAND, com l'API
+@FunctionalInterface
+public interface Strategy {
+
+    boolean hit(HandValue playerHand, int dealerUpCard);
+
+    static Strategy hitUntil(int target) {
+        return (playerHand, dealerUpCard) -> playerHand.getScore() < target;
+    }
+
+    // Estratègia bàsica reduïda a demanar o plantar-se (sense doblar ni separar)
+    static Strategy basic() {
+        return (playerHand, dealerUpCard) -> {
+            int score = playerHand.getScore();
+            if (playerHand.isSoft()) {
+                return score <= 17 || (score == 18 && dealerUpCard >= 9);
+            }
+            if (score <= 11) {
+                return true;
+            }
+            if (score == 12) {
+                return dealerUpCard < 4 || dealerUpCard > 6;
+            }
+            return score <= 16 && dealerUpCard >= 7;
+        };
+    }
+}
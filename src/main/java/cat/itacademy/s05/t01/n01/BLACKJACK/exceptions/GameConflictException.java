@@ -0,0 +1,7 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.exceptions;
+
+public class GameConflictException extends BlackjackException {
+    public GameConflictException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -62,6 +63,13 @@ public class GlobalExceptionHandler {
     return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
   }
 
+  @ExceptionHandler({GameConflictException.class, OptimisticLockingFailureException.class})
+  public Mono<ResponseEntity<ErrorResponse>> handleConflict(RuntimeException ex) {
+    log.warn("Concurrent game update: {}", ex.getMessage());
+    ErrorResponse error = new ErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(error));
+  }
+
   @ExceptionHandler(BlackjackException.class)
   public Mono<ResponseEntity<ErrorResponse>> handleBlackjack(BlackjackException ex) {
     log.error("Blackjack error: {}", ex.getMessage());
@@ -0,0 +1,54 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.converters.CardListConverter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.convert.ValueConverter;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Partida acabada a games_archive: només el resultat, sense shoe, mans ni versió
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "games_archive")
+public class ArchivedGame {
+    @Id
+    private String id;
+    private String playerId;
+    private String playerName;
+    @ValueConverter(CardListConverter.class)
+    private List<Card> playerCards;
+    @ValueConverter(CardListConverter.class)
+    private List<Card> dealerCards;
+    private int playerScore;
+    private int dealerScore;
+    private GameStatus status;
+    private double bet;
+    private double winnings;
+    private LocalDateTime createdAt;
+    private LocalDateTime settledAt;
+
+    public static ArchivedGame of(Game game) {
+        return ArchivedGame.builder()
+                .id(game.getId())
+                .playerId(game.getPlayerId())
+                .playerName(game.getPlayerName())
+                .playerCards(game.getPlayerCards())
+                .dealerCards(game.getDealerCards())
+                .playerScore(game.getPlayerScore())
+                .dealerScore(game.getDealerScore())
+                .status(game.getStatus())
+                .bet(game.getBet())
+                .winnings(game.getWinnings())
+                .createdAt(game.getCreatedAt())
+                .settledAt(game.getUpdatedAt())
+                .build();
+    }
+}
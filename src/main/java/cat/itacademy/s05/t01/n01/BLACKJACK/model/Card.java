@@ -1,22 +1,50 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Value;
+
+// Immutable: Card.of reparteix la mateixa instància a totes les mans
+@Value
 public class Card {
-    private Suit suit;
-    private Rank rank;
+    public static final int DECK_SIZE = 52;
+    private static final int RANK_COUNT = 13;
+
+    // Una instància per codi (0-51): el shoe reparteix sense crear objectes nous
+    private static final Card[] BY_CODE = new Card[DECK_SIZE];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                Card card = new Card(suit, rank);
+                BY_CODE[card.getCode()] = card;
+            }
+        }
+    }
+
+    Suit suit;
+    Rank rank;
 
     public int getValue() {
         return rank.getValue();
     }
 
+    @JsonIgnore
+    public int getCode() {
+        return suit.ordinal() * RANK_COUNT + rank.ordinal();
+    }
+
+    public static Card of(int code) {
+        return BY_CODE[code];
+    }
+
+    // També des de JSON: el log en fitxers i els clients tornen les instàncies compartides
+    @JsonCreator
+    public static Card of(@JsonProperty("suit") Suit suit, @JsonProperty("rank") Rank rank) {
+        return BY_CODE[suit.ordinal() * RANK_COUNT + rank.ordinal()];
+    }
+
     public enum Suit {
         HEARTS, DIAMONDS, CLUBS, SPADES
     }
@@ -0,0 +1,38 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Codificació compacta: cada carta és un byte (0-51) i una mà és un byte[] amb l'ordre de repartiment
+public final class CardCodec {
+
+    private CardCodec() {
+    }
+
+    public static byte encode(Card card) {
+        return (byte) card.getCode();
+    }
+
+    public static Card decode(byte code) {
+        if (code < 0 || code >= Card.DECK_SIZE) {
+            throw new IllegalArgumentException("Invalid card code: " + code);
+        }
+        return Card.of(code);
+    }
+
+    public static byte[] encodeHand(List<Card> cards) {
+        byte[] hand = new byte[cards.size()];
+        for (int i = 0; i < hand.length; i++) {
+            hand[i] = encode(cards.get(i));
+        }
+        return hand;
+    }
+
+    public static List<Card> decodeHand(byte[] hand) {
+        List<Card> cards = new ArrayList<>(hand.length + 4);
+        for (byte code : hand) {
+            cards.add(decode(code));
+        }
+        return cards;
+    }
+}
@@ -1,17 +1,22 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.model;
 
+import cat.itacademy.s05.t01.n01.BLACKJACK.converters.CardListConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.convert.ValueConverter;
 import org.springframework.data.mongodb.core.mapping.Document;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "games")
@@ -20,13 +25,38 @@ public class Game {
     private String id;
     private String playerId;
     private String playerName;
+    @ValueConverter(CardListConverter.class)
     private List<Card> playerCards;
+    @ValueConverter(CardListConverter.class)
     private List<Card> dealerCards;
     private int playerScore;
     private int dealerScore;
+    @JsonIgnore
+    private HandValue playerHand;
+    @JsonIgnore
+    private HandValue dealerHand;
     private GameStatus status;
     private double bet;
     private double winnings;
+    @JsonIgnore
+    private Shoe shoe;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Només mentre la partida acabada no s'ha sumat a MySQL (blackjack.stats.outbox)
+    @JsonIgnore
+    private SettledGame statsOutbox;
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    // Còpia independent: les jugades modifiquen cartes, mans i shoe in situ
+    public Game copy() {
+        return toBuilder()
+                .playerCards(playerCards == null ? null : new ArrayList<>(playerCards))
+                .dealerCards(dealerCards == null ? null : new ArrayList<>(dealerCards))
+                .playerHand(playerHand == null ? null : playerHand.copy())
+                .dealerHand(dealerHand == null ? null : dealerHand.copy())
+                .shoe(shoe == null ? null : shoe.copy())
+                .build();
+    }
 }
\ No newline at end of file
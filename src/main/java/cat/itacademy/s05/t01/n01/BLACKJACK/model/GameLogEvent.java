@@ -0,0 +1,89 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.converters.CardListConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.convert.ValueConverter;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Un fet immutable d'una partida. Només porta el que ha canviat:
+// DEALT i SNAPSHOT, l'estat complet; PLAY, les cartes repartides a cada mà i, si la jugada acaba
+// la partida, el resultat. Una jugada és un sol document: o s'escriu sencera o no s'escriu.
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Document(collection = "game_events")
+public class GameLogEvent {
+    // gameId:seq amb el seq farcit de zeros: l'índex de _id ja ordena els esdeveniments de cada partida
+    @Id
+    @JsonIgnore
+    private String id;
+    private String gameId;
+    private long seq;
+    private Type type;
+    private LocalDateTime at;
+    private String playerId;
+    private String playerName;
+    private Double bet;
+    private LocalDateTime createdAt;
+    @ValueConverter(CardListConverter.class)
+    private List<Card> playerCards;
+    @ValueConverter(CardListConverter.class)
+    private List<Card> dealerCards;
+    // Ordre del shoe per poder refer les jugades; no surt mai a l'historial públic
+    private Shoe shoe;
+    private GameStatus status;
+    private Double winnings;
+
+    public enum Type {
+        DEALT, PLAY, DELETED, SNAPSHOT
+    }
+
+    public static String idOf(String gameId, long seq) {
+        return String.format("%s:%09d", gameId, seq);
+    }
+
+    // Tot l'estat de la partida en aquest punt: el replay pot començar aquí
+    public static GameLogEvent snapshotOf(Game game) {
+        return fullState(game, Type.SNAPSHOT, game.getVersion());
+    }
+
+    // El repartiment inicial; un blackjack d'entrada ja hi porta el resultat
+    public static GameLogEvent dealtOf(Game game) {
+        return fullState(game, Type.DEALT, 1);
+    }
+
+    private static GameLogEvent fullState(Game game, Type type, long seq) {
+        return GameLogEvent.builder()
+                .id(idOf(game.getId(), seq))
+                .gameId(game.getId())
+                .seq(seq)
+                .type(type)
+                .at(type == Type.DEALT ? game.getCreatedAt() : game.getUpdatedAt())
+                .playerId(game.getPlayerId())
+                .playerName(game.getPlayerName())
+                .bet(game.getBet())
+                .createdAt(game.getCreatedAt())
+                .playerCards(List.copyOf(game.getPlayerCards()))
+                .dealerCards(List.copyOf(game.getDealerCards()))
+                .shoe(game.getShoe().copy())
+                .status(game.getStatus())
+                .winnings(game.getWinnings())
+                .build();
+    }
+
+    // Per a l'API: sense el shoe, que revelaria les cartes que han de sortir
+    public GameLogEvent withoutShoe() {
+        return toBuilder().shoe(null).build();
+    }
+}
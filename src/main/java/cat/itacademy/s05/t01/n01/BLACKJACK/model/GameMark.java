@@ -0,0 +1,10 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+// Estat mínim d'una partida abans d'una jugada: cartes que ja hi havia i estat anterior.
+// El que hi ha després de la marca és el que ha canviat (deltes del WebSocket i esdeveniments del log).
+public record GameMark(int playerCards, int dealerCards, GameStatus status) {
+
+    public static GameMark of(Game game) {
+        return new GameMark(game.getPlayerCards().size(), game.getDealerCards().size(), game.getStatus());
+    }
+}
@@ -0,0 +1,52 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.converters.CardListConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.convert.ValueConverter;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Diversos seients amb un sol shoe i una sola mà de la casa; tota la taula és un document
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "tables")
+public class GameTable {
+    @Id
+    private String id;
+    private List<Seat> seats;
+    @ValueConverter(CardListConverter.class)
+    private List<Card> dealerCards;
+    private int dealerScore;
+    @JsonIgnore
+    private HandValue dealerHand;
+    private TableStatus status;
+    // Mà en curs; comença per 1 i el shoe es conserva d'una mà a l'altra
+    private int round;
+    @JsonIgnore
+    private Shoe shoe;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    public GameTable copy() {
+        return toBuilder()
+                .seats(seats == null ? null : new ArrayList<>(seats.stream().map(Seat::copy).toList()))
+                .dealerCards(dealerCards == null ? null : new ArrayList<>(dealerCards))
+                .dealerHand(dealerHand == null ? null : dealerHand.copy())
+                .shoe(shoe == null ? null : shoe.copy())
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HandValue {
+    private static final int BLACKJACK = 21;
+
+    // Total amb tots els asos comptats com 1
+    private int hardTotal;
+    // Asos que encara valen 11 sense passar-se de 21
+    private int softAces;
+    private int cardCount;
+
+    public static HandValue of(List<Card> cards) {
+        HandValue hand = new HandValue();
+        for (Card card : cards) {
+            hand.add(card);
+        }
+        return hand;
+    }
+
+    public void add(Card card) {
+        add(card.getValue(), card.getRank() == Card.Rank.ACE);
+    }
+
+    public void add(int value, boolean ace) {
+        cardCount++;
+        if (ace) {
+            hardTotal += 1;
+            softAces++;
+        } else {
+            hardTotal += value;
+        }
+
+        // Ajustar asos (11 → 1 si cal per evitar bust); cada as es rebaixa com a molt una vegada
+        while (softAces > 0 && hardTotal + 10 * softAces > BLACKJACK) {
+            softAces--;
+        }
+    }
+
+    public HandValue copy() {
+        return new HandValue(hardTotal, softAces, cardCount);
+    }
+
+    public void reset() {
+        hardTotal = 0;
+        softAces = 0;
+        cardCount = 0;
+    }
+
+    public int getScore() {
+        return hardTotal + 10 * softAces;
+    }
+
+    public boolean isSoft() {
+        return softAces > 0;
+    }
+
+    public boolean isBlackjack() {
+        return cardCount == 2 && getScore() == BLACKJACK;
+    }
+
+    public boolean isBust() {
+        return hardTotal > BLACKJACK;
+    }
+}
@@ -0,0 +1,45 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.converters.CardListConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.convert.ValueConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Un jugador assegut a una taula: la seva mà contra la mà compartida de la casa
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class Seat {
+    private String playerId;
+    private String playerName;
+    @ValueConverter(CardListConverter.class)
+    private List<Card> playerCards;
+    private int playerScore;
+    @JsonIgnore
+    private HandValue playerHand;
+    // IN_PROGRESS fins que la mà es liquida; standing indica que ja espera la casa
+    private GameStatus status;
+    private boolean standing;
+    private double bet;
+    private double winnings;
+
+    // Ja no pot jugar: plantat, passat o amb blackjack
+    @JsonIgnore
+    public boolean isDone() {
+        return standing || status != GameStatus.IN_PROGRESS;
+    }
+
+    public Seat copy() {
+        return toBuilder()
+                .playerCards(playerCards == null ? null : new ArrayList<>(playerCards))
+                .playerHand(playerHand == null ? null : playerHand.copy())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Partida acabada pendent de sumar a les estadístiques de MySQL (outbox dins del document de la partida).
+// gameId és la clau d'idempotència: a settled_games, una partida només es compta una vegada.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettledGame {
+    private String gameId;
+    private String playerId;
+    private GameStatus status;
+    private LocalDateTime settledAt;
+
+    public static SettledGame of(Game game) {
+        return new SettledGame(game.getId(), game.getPlayerId(), game.getStatus(), game.getUpdatedAt());
+    }
+}
@@ -0,0 +1,71 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.random.RandomGenerator;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Shoe {
+    // Codis de carta (0-51) barrejats; les cartes abans de position ja s'han repartit
+    private byte[] cards;
+    private int position;
+
+    public static Shoe shuffled(int decks, RandomGenerator random) {
+        if (decks < 1) {
+            throw new IllegalArgumentException("A shoe needs at least one deck");
+        }
+
+        byte[] cards = new byte[decks * Card.DECK_SIZE];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (byte) (i % Card.DECK_SIZE);
+        }
+
+        Shoe shoe = new Shoe(cards, 0);
+        shoe.shuffle(random);
+        return shoe;
+    }
+
+    // Torna a barrejar totes les cartes sense crear cap objecte (el simulador reutilitza el mateix shoe)
+    public void shuffle(RandomGenerator random) {
+        // Fisher-Yates in situ
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+        position = 0;
+    }
+
+    public Card draw() {
+        if (position >= cards.length) {
+            throw new IllegalStateException("Shoe is exhausted");
+        }
+        return Card.of(cards[position++]);
+    }
+
+    public Shoe copy() {
+        return new Shoe(cards.clone(), position);
+    }
+
+    public int remaining() {
+        return cards.length - position;
+    }
+
+    // Treu del shoe una carta que ja és a taula (partides desades sense shoe)
+    public void discard(Card card) {
+        byte code = (byte) card.getCode();
+        for (int i = position; i < cards.length; i++) {
+            if (cards[i] == code) {
+                cards[i] = cards[position];
+                cards[position++] = code;
+                return;
+            }
+        }
+        throw new IllegalStateException("Card not available in shoe: " + card);
+    }
+}
@@ -0,0 +1,15 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+// Canvi pendent a les estadístiques d'un jugador (una o més partides acabades)
+public record StatsDelta(int gamesPlayed, int gamesWon, double winnings) {
+
+    public static StatsDelta ofGame(boolean won, double winnings) {
+        return new StatsDelta(1, won ? 1 : 0, winnings);
+    }
+
+    public StatsDelta plus(StatsDelta other) {
+        return new StatsDelta(gamesPlayed + other.gamesPlayed,
+                gamesWon + other.gamesWon,
+                winnings + other.winnings);
+    }
+}
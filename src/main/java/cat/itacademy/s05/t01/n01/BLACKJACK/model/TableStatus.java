@@ -0,0 +1,7 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+// Estat de la mà en curs d'una taula: SETTLED quan la casa ja ha jugat i tots els seients estan liquidats
+public enum TableStatus {
+    IN_PROGRESS,
+    SETTLED
+}
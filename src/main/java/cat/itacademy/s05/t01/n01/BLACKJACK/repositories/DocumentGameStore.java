@@ -0,0 +1,53 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.InvalidGameException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Una partida = un document de "games"; cada jugada és un findAndModify condicionat a la versió
+@Repository
+@ConditionalOnProperty(prefix = "blackjack.event-log", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DocumentGameStore implements GameStore {
+
+    private final GameRepository gameRepository;
+
+    @Override
+    public Mono<Game> create(Game game) {
+        return gameRepository.save(game);
+    }
+
+    @Override
+    public Flux<Game> createAll(List<Game> games) {
+        return gameRepository.insert(games);
+    }
+
+    @Override
+    public Mono<Game> findById(String gameId) {
+        return gameRepository.findById(gameId);
+    }
+
+    @Override
+    public Mono<Game> updateIfInProgress(Game game, GameMark before) {
+        return gameRepository.updateIfInProgress(game);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String gameId) {
+        return gameRepository.deleteById(gameId);
+    }
+
+    // El document només guarda l'estat actual
+    @Override
+    public Flux<GameLogEvent> history(String gameId) {
+        return Flux.error(new InvalidGameException("Game history needs blackjack.event-log.enabled=true"));
+    }
+}
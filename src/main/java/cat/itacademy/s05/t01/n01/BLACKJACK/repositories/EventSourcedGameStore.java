@@ -0,0 +1,229 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameConflictException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Les partides com a seqüència d'esdeveniments: cada jugada afegeix un esdeveniment petit en lloc de
+// reescriure el document. Un sol document per jugada fa l'escriptura atòmica: ningú llegeix mitja
+// jugada, i dues jugades sobre la mateixa versió xoquen al mateix seq sense deixar-ne cap tros.
+// La versió de la partida és el seq de l'últim esdeveniment. Cada snapshotEvery esdeveniments
+// es desa una instantània perquè llegir una partida no hagi de refer-la des del principi.
+@Slf4j
+public class EventSourcedGameStore implements GameStore {
+
+    private final GameEventLog eventLog;
+    private final int snapshotEvery;
+
+    public EventSourcedGameStore(GameEventLog eventLog, int snapshotEvery) {
+        if (snapshotEvery < 1) {
+            throw new IllegalArgumentException("snapshotEvery must be at least 1");
+        }
+        this.eventLog = eventLog;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    @Override
+    public Mono<Game> create(Game game) {
+        return createAll(List.of(game)).next();
+    }
+
+    // Un DEALT per partida, totes en un sol append
+    @Override
+    public Flux<Game> createAll(List<Game> games) {
+        List<GameLogEvent> events = new ArrayList<>(games.size());
+        for (Game game : games) {
+            events.add(GameLogEvent.dealtOf(game));
+            game.setVersion(1L);
+        }
+        return eventLog.append(events)
+                .flatMapMany(appended -> appended
+                        ? Flux.fromIterable(games)
+                        : Flux.error(new GameConflictException("A game with the same id already exists")));
+    }
+
+    @Override
+    public Mono<Game> findById(String gameId) {
+        return eventLog.latestSnapshot(gameId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(snapshot -> eventLog.eventsAfter(gameId, snapshot.map(GameLogEvent::getSeq).orElse(0L))
+                        .collectList()
+                        .flatMap(tail -> Mono.justOrEmpty(replay(snapshot.orElse(null), tail))));
+    }
+
+    @Override
+    public Mono<Game> updateIfInProgress(Game game, GameMark before) {
+        if (before.status() != GameStatus.IN_PROGRESS) {
+            return Mono.empty();
+        }
+        long version = game.getVersion();
+        Optional<GameLogEvent> play = playEvent(before, game, version + 1);
+        if (play.isEmpty()) {
+            return Mono.just(game);
+        }
+
+        return eventLog.append(List.of(play.get()))
+                .filter(appended -> appended)
+                .map(appended -> {
+                    game.setVersion(version + 1);
+                    return game;
+                })
+                .flatMap(saved -> crossesSnapshot(version, version + 1) ? snapshot(saved) : Mono.just(saved));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String gameId) {
+        return findById(gameId)
+                .flatMap(game -> eventLog.append(List.of(event(game.getId(), game.getVersion() + 1,
+                                GameLogEvent.Type.DELETED, LocalDateTime.now()).build()))
+                        .filter(appended -> appended)
+                        .switchIfEmpty(Mono.error(new GameConflictException(
+                                "Game was modified by another request: " + gameId))))
+                .then();
+    }
+
+    // Sense el shoe: l'historial és públic i el shoe diria quines cartes queden per sortir
+    @Override
+    public Flux<GameLogEvent> history(String gameId) {
+        return eventLog.eventsAfter(gameId, 0).map(GameLogEvent::withoutShoe);
+    }
+
+    // Què ha passat des de la marca, en un sol PLAY: les cartes del jugador, les de la casa (cap si el
+    // jugador s'ha passat) i el resultat si la partida s'ha acabat. Buit si la jugada no ha canviat res.
+    static Optional<GameLogEvent> playEvent(GameMark before, Game game, long seq) {
+        List<Card> playerCards = game.getPlayerCards();
+        List<Card> dealerCards = game.getDealerCards();
+        boolean settled = game.getStatus() != before.status();
+        if (playerCards.size() == before.playerCards() && dealerCards.size() == before.dealerCards() && !settled) {
+            return Optional.empty();
+        }
+
+        GameLogEvent.GameLogEventBuilder play = event(game.getId(), seq, GameLogEvent.Type.PLAY, game.getUpdatedAt());
+        if (playerCards.size() > before.playerCards()) {
+            play.playerCards(List.copyOf(playerCards.subList(before.playerCards(), playerCards.size())));
+        }
+        if (dealerCards.size() > before.dealerCards()) {
+            play.dealerCards(List.copyOf(dealerCards.subList(before.dealerCards(), dealerCards.size())));
+        }
+        if (settled) {
+            play.status(game.getStatus()).winnings(game.getWinnings());
+        }
+        return Optional.of(play.build());
+    }
+
+    // Refà la partida a partir de la instantània (si n'hi ha) i dels esdeveniments posteriors.
+    // null si no hi ha res o si l'últim esdeveniment és DELETED.
+    static Game replay(GameLogEvent snapshot, List<GameLogEvent> tail) {
+        Game game = snapshot == null ? null : fromFullState(snapshot);
+        for (GameLogEvent event : tail) {
+            if (event.getType() == GameLogEvent.Type.DEALT) {
+                game = fromFullState(event);
+                continue;
+            }
+            if (game == null) {
+                if (event.getType() == GameLogEvent.Type.DELETED) {
+                    continue;
+                }
+                throw new IllegalStateException("Event " + event.getId() + " has no game to apply to");
+            }
+            if (event.getSeq() != game.getVersion() + 1) {
+                throw new IllegalStateException("Gap in event log before " + event.getId());
+            }
+            switch (event.getType()) {
+                case PLAY -> {
+                    // Com a la jugada original: primer demana el jugador i després juga la casa
+                    draw(game, event, event.getPlayerCards(), game.getPlayerCards());
+                    draw(game, event, event.getDealerCards(), game.getDealerCards());
+                    if (event.getStatus() != null) {
+                        game.setStatus(event.getStatus());
+                        game.setWinnings(event.getWinnings());
+                    }
+                }
+                case DELETED -> {
+                    game = null;
+                    continue;
+                }
+                default -> throw new IllegalStateException("Unexpected " + event.getType() + " in event log");
+            }
+            game.setUpdatedAt(event.getAt());
+            game.setVersion(event.getSeq());
+        }
+
+        if (game != null) {
+            game.setPlayerHand(HandValue.of(game.getPlayerCards()));
+            game.setDealerHand(HandValue.of(game.getDealerCards()));
+            game.setPlayerScore(game.getPlayerHand().getScore());
+            game.setDealerScore(game.getDealerHand().getScore());
+        }
+        return game;
+    }
+
+    private static Game fromFullState(GameLogEvent event) {
+        return Game.builder()
+                .id(event.getGameId())
+                .playerId(event.getPlayerId())
+                .playerName(event.getPlayerName())
+                .playerCards(new ArrayList<>(event.getPlayerCards()))
+                .dealerCards(new ArrayList<>(event.getDealerCards()))
+                .shoe(event.getShoe().copy())
+                .status(event.getStatus())
+                .bet(event.getBet())
+                .winnings(event.getWinnings())
+                .createdAt(event.getCreatedAt())
+                .updatedAt(event.getAt())
+                .version(event.getSeq())
+                .build();
+    }
+
+    // Les cartes surten del shoe en el mateix ordre que a la jugada original
+    private static void draw(Game game, GameLogEvent event, List<Card> cards, List<Card> hand) {
+        if (cards == null) {
+            return;
+        }
+        Shoe shoe = game.getShoe();
+        for (Card card : cards) {
+            if (!shoe.draw().equals(card)) {
+                throw new IllegalStateException("Event " + event.getId() + " does not match the game's shoe");
+            }
+            hand.add(card);
+        }
+    }
+
+    private static GameLogEvent.GameLogEventBuilder event(String gameId, long seq, GameLogEvent.Type type,
+                                                          LocalDateTime at) {
+        return GameLogEvent.builder()
+                .id(GameLogEvent.idOf(gameId, seq))
+                .gameId(gameId)
+                .seq(seq)
+                .type(type)
+                .at(at);
+    }
+
+    private boolean crossesSnapshot(long fromSeq, long toSeq) {
+        return toSeq / snapshotEvery > fromSeq / snapshotEvery;
+    }
+
+    // Una instantània que no es pot desar no fa fallar la jugada: el replay només serà més llarg
+    private Mono<Game> snapshot(Game game) {
+        return eventLog.saveSnapshot(GameLogEvent.snapshotOf(game))
+                .onErrorResume(error -> {
+                    log.warn("Could not save snapshot of game {}: {}", game.getId(), error.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(game);
+    }
+}
@@ -0,0 +1,78 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.ArchivedGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import com.mongodb.client.result.DeleteResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Consultes de neteja de games. Els cursors llegeixen per lots de cursorBatchSize i només
+// demanen el següent lot quan el consumidor n'ha processat l'anterior.
+// Cada esborrat torna a comprovar el filtre: una partida jugada mentrestant no es toca.
+@Repository
+@RequiredArgsConstructor
+public class GameArchiveRepository {
+
+    private static final List<GameStatus> SETTLED = List.copyOf(EnumSet.complementOf(EnumSet.of(GameStatus.IN_PROGRESS)));
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    // Mateix filtre que l'índex parcial inProgress_updatedAt
+    public Flux<String> findAbandonedIds(LocalDateTime idleSince, int batchSize) {
+        Query query = Query.query(abandoned(idleSince)).cursorBatchSize(batchSize);
+        query.fields().include("id");
+        return mongoTemplate.find(query, Game.class).map(Game::getId);
+    }
+
+    public Mono<Long> deleteAbandoned(List<String> gameIds, LocalDateTime idleSince) {
+        return mongoTemplate.remove(Query.query(where("id").in(gameIds).andOperator(abandoned(idleSince))), Game.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+
+    // Índex status_updatedAt; les que encara tenen l'outbox pendent esperen el relay
+    public Flux<Game> findArchivable(LocalDateTime settledBefore, int batchSize) {
+        Query query = Query.query(archivable(settledBefore))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt"))
+                .cursorBatchSize(batchSize);
+        query.fields().exclude("shoe").exclude("playerHand").exclude("dealerHand");
+        return mongoTemplate.find(query, Game.class);
+    }
+
+    // Primer a l'arxiu (upsert: repetir un lot a mitges no duplica res) i després fora de games
+    public Mono<Long> archive(List<Game> games, LocalDateTime settledBefore) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedGame.class);
+        for (Game game : games) {
+            bulk.replaceOne(Query.query(where("id").is(game.getId())), ArchivedGame.of(game),
+                    FindAndReplaceOptions.options().upsert());
+        }
+        List<String> ids = games.stream().map(Game::getId).toList();
+        return bulk.execute()
+                .then(mongoTemplate.remove(Query.query(where("id").in(ids).andOperator(archivable(settledBefore))),
+                        Game.class))
+                .map(DeleteResult::getDeletedCount);
+    }
+
+    private static Criteria abandoned(LocalDateTime idleSince) {
+        return where("status").is(GameStatus.IN_PROGRESS).and("updatedAt").lt(idleSince);
+    }
+
+    private static Criteria archivable(LocalDateTime settledBefore) {
+        return where("status").in(SETTLED).and("updatedAt").lt(settledBefore).and("statsOutbox").exists(false);
+    }
+}
@@ -0,0 +1,21 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Log només d'afegir: un esdeveniment per (gameId, seq). Les instantànies són a part i se sobreescriuen.
+public interface GameEventLog {
+
+    // false si algun seq ja hi és: una altra petició ha jugat la mateixa partida primer
+    Mono<Boolean> append(List<GameLogEvent> events);
+
+    // Esdeveniments amb seq > afterSeq, en ordre
+    Flux<GameLogEvent> eventsAfter(String gameId, long afterSeq);
+
+    Mono<GameLogEvent> latestSnapshot(String gameId);
+
+    Mono<Void> saveSnapshot(GameLogEvent snapshot);
+}
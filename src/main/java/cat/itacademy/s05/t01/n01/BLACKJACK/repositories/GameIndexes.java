@@ -0,0 +1,140 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Índexs de la col·lecció games, creats des del codi en arrencar (auto-index-creation segueix desactivat).
+// Després es comparen amb $indexStats: falten, sobren o ningú no els fa servir.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameIndexes {
+
+    // Un índex sense cap ús durant aquest temps (des que el servidor en compta els usos) es pot revisar
+    static final Duration UNUSED_AFTER = Duration.ofDays(7);
+
+    private static final String ID_INDEX = "_id_";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public record IndexReport(List<String> missing, List<String> undeclared, List<String> unused) {
+
+        public boolean isClean() {
+            return missing.isEmpty() && undeclared.isEmpty() && unused.isEmpty();
+        }
+
+        static IndexReport of(Set<String> declared, List<Document> stats, Instant now) {
+            Set<String> present = stats.stream().map(stat -> stat.getString("name")).collect(Collectors.toSet());
+            return new IndexReport(
+                    declared.stream().filter(name -> !present.contains(name)).sorted().toList(),
+                    present.stream().filter(name -> !declared.contains(name) && !ID_INDEX.equals(name)).sorted().toList(),
+                    stats.stream()
+                            .filter(stat -> declared.contains(stat.getString("name")) && isUnused(stat, now))
+                            .map(stat -> stat.getString("name"))
+                            .sorted()
+                            .toList());
+        }
+
+        private static boolean isUnused(Document stat, Instant now) {
+            Document accesses = stat.get("accesses", Document.class);
+            if (accesses == null || accesses.get("ops", Number.class) == null) {
+                return false;
+            }
+            Date since = accesses.getDate("since");
+            return accesses.get("ops", Number.class).longValue() == 0
+                    && since != null && since.toInstant().plus(UNUSED_AFTER).isBefore(now);
+        }
+    }
+
+    static List<Index> definitions() {
+        return List.of(
+                // Historial d'un jugador, de la més recent a la més antiga (findByPlayerId)
+                new Index().named("playerId_createdAt")
+                        .on("playerId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC),
+                // El mateix per nom (findByPlayerName)
+                new Index().named("playerName_createdAt")
+                        .on("playerName", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC),
+                // Partides per estat i antiguitat: neteja i arxiu de les acabades
+                new Index().named("status_updatedAt")
+                        .on("status", Sort.Direction.ASC)
+                        .on("updatedAt", Sort.Direction.ASC),
+                // Només les partides en curs, que són poques: troba les abandonades sense tocar l'històric
+                new Index().named("inProgress_updatedAt")
+                        .on("updatedAt", Sort.Direction.ASC)
+                        .partial(PartialIndexFilter.of(where("status").is(GameStatus.IN_PROGRESS.name()))),
+                // Partides acabades pendents de passar a MySQL (outbox): el relay les llegeix per ordre
+                new Index().named("statsOutbox_settledAt")
+                        .on("statsOutbox.settledAt", Sort.Direction.ASC)
+                        .partial(PartialIndexFilter.of(where("statsOutbox").exists(true))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        createIndexes()
+                .then(check())
+                .subscribe(this::logReport, error -> log.error("Could not check games indexes: {}", error.getMessage()));
+    }
+
+    // Un índex que falla no atura els altres; el check posterior el dona per absent
+    public Mono<Void> createIndexes() {
+        return Flux.fromIterable(definitions())
+                .concatMap(index -> mongoTemplate.indexOps(Game.class).createIndex(index)
+                        .doOnNext(name -> log.debug("Index {} ready on games", name))
+                        .onErrorResume(error -> {
+                            log.error("Could not create index {} on games: {}",
+                                    index.getIndexOptions().getString("name"), error.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    public Mono<IndexReport> check() {
+        Set<String> declared = definitions().stream()
+                .map(index -> index.getIndexOptions().getString("name"))
+                .collect(Collectors.toSet());
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Game.class))
+                .flatMapMany(games -> games.aggregate(List.of(new Document("$indexStats", new Document()))))
+                .collectList()
+                .map(stats -> IndexReport.of(declared, stats, Instant.now()));
+    }
+
+    private void logReport(IndexReport report) {
+        if (report.isClean()) {
+            log.info("Games indexes OK");
+            return;
+        }
+        if (!report.missing().isEmpty()) {
+            log.warn("Games indexes missing (queries on these fields scan the collection): {}", report.missing());
+        }
+        if (!report.undeclared().isEmpty()) {
+            log.warn("Games indexes not declared by the application (drop them if nothing else needs them): {}",
+                    report.undeclared());
+        }
+        if (!report.unused().isEmpty()) {
+            log.warn("Games indexes unused for over {} days: {}", UNUSED_AFTER.toDays(), report.unused());
+        }
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
 @Repository
-public interface GameRepository extends ReactiveMongoRepository<Game, String> {
+public interface GameRepository extends ReactiveMongoRepository<Game, String>, GameRepositoryCustom {
     Flux<Game> findByPlayerId(String playerId);
     Flux<Game> findByPlayerName(String playerName);
-}
\ No newline at end of file
+}
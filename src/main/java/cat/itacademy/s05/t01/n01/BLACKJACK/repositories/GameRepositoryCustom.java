@@ -0,0 +1,9 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import reactor.core.publisher.Mono;
+
+public interface GameRepositoryCustom {
+    // Buit si la partida ja no està IN_PROGRESS o algú l'ha modificat des que es va llegir
+    Mono<Game> updateIfInProgress(Game game);
+}
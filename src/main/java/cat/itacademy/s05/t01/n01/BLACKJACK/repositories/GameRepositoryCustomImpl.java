@@ -0,0 +1,49 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class GameRepositoryCustomImpl implements GameRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Game> updateIfInProgress(Game game) {
+        Query query = Query.query(where("id").is(game.getId())
+                .and("status").is(GameStatus.IN_PROGRESS)
+                .and("version").is(game.getVersion()));
+
+        return mongoTemplate.findAndModify(query, buildPlayUpdate(game),
+                FindAndModifyOptions.options().returnNew(true), Game.class);
+    }
+
+    // Només els camps que pot canviar una jugada; la versió s'incrementa en la mateixa operació
+    static Update buildPlayUpdate(Game game) {
+        Update update = new Update()
+                .set("playerCards", game.getPlayerCards())
+                .set("dealerCards", game.getDealerCards())
+                .set("playerScore", game.getPlayerScore())
+                .set("dealerScore", game.getDealerScore())
+                .set("playerHand", game.getPlayerHand())
+                .set("dealerHand", game.getDealerHand())
+                .set("shoe", game.getShoe())
+                .set("status", game.getStatus())
+                .set("winnings", game.getWinnings())
+                .set("updatedAt", game.getUpdatedAt())
+                .inc("version", 1);
+        // L'outbox va en la mateixa escriptura que el resultat: o hi són tots dos o cap
+        if (game.getStatsOutbox() != null) {
+            update.set("statsOutbox", game.getStatsOutbox());
+        }
+        return update;
+    }
+}
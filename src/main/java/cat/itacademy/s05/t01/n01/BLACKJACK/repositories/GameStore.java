@@ -0,0 +1,28 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// On viuen les partides: un document per partida (per defecte) o un log d'esdeveniments
+// (blackjack.event-log.enabled=true). El servei i la cache només veuen aquesta interfície.
+public interface GameStore {
+    Mono<Game> create(Game game);
+
+    Flux<Game> createAll(List<Game> games);
+
+    Mono<Game> findById(String gameId);
+
+    // Buit si la partida ja no està IN_PROGRESS o algú l'ha modificat des que es va llegir.
+    // before: com era la partida quan es va llegir, abans d'aplicar-hi les jugades
+    Mono<Game> updateIfInProgress(Game game, GameMark before);
+
+    Mono<Void> deleteById(String gameId);
+
+    // Tots els esdeveniments de la partida en ordre (buit si no n'hi ha cap)
+    Flux<GameLogEvent> history(String gameId);
+}
@@ -0,0 +1,9 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GameTableRepository extends ReactiveMongoRepository<GameTable, String>, GameTableRepositoryCustom {
+}
@@ -0,0 +1,9 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import reactor.core.publisher.Mono;
+
+public interface GameTableRepositoryCustom {
+    // Buit si algú ha modificat la taula des que es va llegir
+    Mono<GameTable> updateIfUnchanged(GameTable table);
+}
@@ -0,0 +1,40 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class GameTableRepositoryCustomImpl implements GameTableRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<GameTable> updateIfUnchanged(GameTable table) {
+        Query query = Query.query(where("id").is(table.getId())
+                .and("version").is(table.getVersion()));
+
+        return mongoTemplate.findAndModify(query, buildRoundUpdate(table),
+                FindAndModifyOptions.options().returnNew(true), GameTable.class);
+    }
+
+    // Tots els seients i la casa en la mateixa escriptura; la versió s'incrementa en la mateixa operació
+    static Update buildRoundUpdate(GameTable table) {
+        return new Update()
+                .set("seats", table.getSeats())
+                .set("dealerCards", table.getDealerCards())
+                .set("dealerScore", table.getDealerScore())
+                .set("dealerHand", table.getDealerHand())
+                .set("status", table.getStatus())
+                .set("round", table.getRound())
+                .set("shoe", table.getShoe())
+                .set("updatedAt", table.getUpdatedAt())
+                .inc("version", 1);
+    }
+}
@@ -0,0 +1,51 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Esdeveniments a game_events i la darrera instantània de cada partida a game_snapshots, amb _id = gameId.
+// Una jugada és un sol document, i per tant una escriptura atòmica. Els lots només són partides noves
+// (un DEALT per partida): l'insert ordenat s'atura al primer seq repetit.
+@RequiredArgsConstructor
+public class MongoGameEventLog implements GameEventLog {
+
+    static final String SNAPSHOTS = "game_snapshots";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Boolean> append(List<GameLogEvent> events) {
+        return mongoTemplate.insertAll(events)
+                .then(Mono.just(true))
+                .onErrorResume(DuplicateKeyException.class, duplicate -> Mono.just(false));
+    }
+
+    // Rang sobre _id: "gameId:" + seq farcit fins a "gameId;" (';' va just després de ':')
+    @Override
+    public Flux<GameLogEvent> eventsAfter(String gameId, long afterSeq) {
+        Query query = Query.query(where("_id").gt(GameLogEvent.idOf(gameId, afterSeq)).lt(gameId + ";"))
+                .with(Sort.by(Sort.Direction.ASC, "_id"));
+        return mongoTemplate.find(query, GameLogEvent.class);
+    }
+
+    @Override
+    public Mono<GameLogEvent> latestSnapshot(String gameId) {
+        return mongoTemplate.findById(gameId, GameLogEvent.class, SNAPSHOTS);
+    }
+
+    // Una instantània més antiga que l'anterior continua sent vàlida: només allarga el replay
+    @Override
+    public Mono<Void> saveSnapshot(GameLogEvent snapshot) {
+        return mongoTemplate.save(snapshot.toBuilder().id(snapshot.getGameId()).build(), SNAPSHOTS).then();
+    }
+}
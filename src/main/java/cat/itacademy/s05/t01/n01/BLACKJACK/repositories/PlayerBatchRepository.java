@@ -0,0 +1,37 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Crea molts jugadors amb un sol INSERT multi-fila; els noms que ja existeixen no es toquen
+@Repository
+@RequiredArgsConstructor
+public class PlayerBatchRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> insertAllIfAbsent(List<String> names) {
+        if (names.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(buildSql(names.size()));
+        for (int i = 0; i < names.size(); i++) {
+            spec = spec.bind("name" + i, names.get(i));
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    static String buildSql(int players) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO players (name, games_played, games_won, total_winnings, win_rate) VALUES ");
+        for (int i = 0; i < players; i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:name").append(i).append(", 0, 0, 0.00, 0.00)");
+        }
+        return sql.append(" ON DUPLICATE KEY UPDATE name = name").toString();
+    }
+}
@@ -1,16 +1,64 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
 
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
 public interface PlayerRepository extends ReactiveCrudRepository<Player, Long> {
     Mono<Player> findByName(String name);
 
-    @Query("SELECT * FROM players ORDER BY win_rate DESC, total_winnings DESC")
+    Flux<Player> findByNameIn(Collection<String> names);
+
+    // Si una altra petició ja l'ha creat, el UNIQUE de name no falla: no es fa res
+    @Modifying
+    @Query("INSERT INTO players (name, games_played, games_won, total_winnings, win_rate) " +
+            "VALUES (:name, 0, 0, 0.00, 0.00) ON DUPLICATE KEY UPDATE name = name")
+    Mono<Integer> insertIfAbsent(@Param("name") String name);
+
+    @Query("SELECT * FROM players ORDER BY win_rate DESC, total_winnings DESC, id")
     Flux<Player> findAllOrderByRanking();
+
+    // Paginació per clau sobre idx_players_ranking: cada pàgina comença on acaba l'anterior, sense OFFSET
+    @Query("SELECT * FROM players ORDER BY win_rate DESC, total_winnings DESC, id LIMIT :limit")
+    Flux<Player> findRankingPage(@Param("limit") int limit);
+
+    @Query("SELECT * FROM players WHERE win_rate <= :winRate AND (" +
+            "win_rate < :winRate OR total_winnings < :totalWinnings " +
+            "OR (total_winnings = :totalWinnings AND id > :id)) " +
+            "ORDER BY win_rate DESC, total_winnings DESC, id LIMIT :limit")
+    Flux<Player> findRankingPageAfter(@Param("winRate") double winRate, @Param("totalWinnings") double totalWinnings,
+                                      @Param("id") Long id, @Param("limit") int limit);
+
+    // Jugadors just per davant, del més proper al més llunyà
+    @Query("SELECT * FROM players WHERE win_rate >= :winRate AND (" +
+            "win_rate > :winRate OR total_winnings > :totalWinnings " +
+            "OR (total_winnings = :totalWinnings AND id < :id)) " +
+            "ORDER BY win_rate, total_winnings, id DESC LIMIT :limit")
+    Flux<Player> findRankingPageBefore(@Param("winRate") double winRate, @Param("totalWinnings") double totalWinnings,
+                                       @Param("id") Long id, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(*) FROM players WHERE win_rate >= :winRate AND (" +
+            "win_rate > :winRate OR total_winnings > :totalWinnings " +
+            "OR (total_winnings = :totalWinnings AND id < :id))")
+    Mono<Long> countPlayersAhead(@Param("winRate") double winRate, @Param("totalWinnings") double totalWinnings,
+                                 @Param("id") Long id);
+
+    // win_rate va primer perquè MySQL aplica els SET d'esquerra a dreta: així tots llegeixen els valors anteriors
+    @Modifying
+    @Query("UPDATE players SET " +
+            "win_rate = ROUND((games_won + :won) * 100.0 / (games_played + 1), 2), " +
+            "games_played = games_played + 1, " +
+            "games_won = games_won + :won, " +
+            "total_winnings = total_winnings + :winnings, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :id")
+    Mono<Integer> incrementStats(@Param("id") Long id, @Param("won") int won, @Param("winnings") double winnings);
 }
\ No newline at end of file
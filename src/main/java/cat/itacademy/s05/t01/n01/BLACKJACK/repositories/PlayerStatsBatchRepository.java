@@ -0,0 +1,62 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.StatsDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Aplica els canvis de molts jugadors amb una sola sentència UPDATE (CASE per jugador)
+@Repository
+@RequiredArgsConstructor
+public class PlayerStatsBatchRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> applyDeltas(Map<Long, StatsDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(buildSql(deltas.size()));
+        int i = 0;
+        for (Map.Entry<Long, StatsDelta> entry : deltas.entrySet()) {
+            StatsDelta delta = entry.getValue();
+            spec = spec.bind("id" + i, entry.getKey())
+                    .bind("played" + i, delta.gamesPlayed())
+                    .bind("won" + i, delta.gamesWon())
+                    .bind("winnings" + i, delta.winnings());
+            i++;
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    // Com a incrementStats: win_rate primer, calculat amb els valors anteriors
+    static String buildSql(int players) {
+        String played = caseOf("played", players);
+        String won = caseOf("won", players);
+
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < players; i++) {
+            ids.append(i == 0 ? "" : ", ").append(":id").append(i);
+        }
+
+        return "UPDATE players SET " +
+                "win_rate = ROUND((games_won + " + won + ") * 100.0 / (games_played + " + played + "), 2), " +
+                "games_played = games_played + " + played + ", " +
+                "games_won = games_won + " + won + ", " +
+                "total_winnings = total_winnings + " + caseOf("winnings", players) + ", " +
+                "updated_at = CURRENT_TIMESTAMP " +
+                "WHERE id IN (" + ids + ")";
+    }
+
+    private static String caseOf(String column, int players) {
+        StringBuilder sql = new StringBuilder("CASE id");
+        for (int i = 0; i < players; i++) {
+            sql.append(" WHEN :id").append(i).append(" THEN :").append(column).append(i);
+        }
+        return sql.append(" END").toString();
+    }
+}
@@ -0,0 +1,192 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Log en fitxers locals per a proves i desenvolupament sense Mongo: una línia JSON per esdeveniment
+// a segment-NNNNNN.log, amb un segment nou quan l'actual passa de segmentSize i a cada arrencada.
+// En arrencar es llegeixen tots els segments; les lectures després van només a memòria.
+@Slf4j
+public class SegmentFileGameEventLog implements GameEventLog, AutoCloseable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ObjectMapper objectMapper;
+    private final Map<String, History> games = new HashMap<>();
+
+    private int segment;
+    private BufferedWriter writer;
+    private long written;
+
+    private static class History {
+        final List<GameLogEvent> events = new ArrayList<>();
+        GameLogEvent snapshot;
+
+        long lastSeq() {
+            return events.isEmpty() ? 0 : events.get(events.size() - 1).getSeq();
+        }
+    }
+
+    public SegmentFileGameEventLog(Path directory, long segmentSize, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.objectMapper = objectMapper;
+        try {
+            Files.createDirectories(directory);
+            for (Path file : segments()) {
+                load(file);
+                segment = Math.max(segment, segmentNumber(file));
+            }
+            roll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open game log in " + directory, e);
+        }
+    }
+
+    @Override
+    public Mono<Boolean> append(List<GameLogEvent> events) {
+        return Mono.fromCallable(() -> appendNow(events))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public synchronized Flux<GameLogEvent> eventsAfter(String gameId, long afterSeq) {
+        History history = games.get(gameId);
+        if (history == null) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(history.events.stream().filter(event -> event.getSeq() > afterSeq).toList());
+    }
+
+    @Override
+    public synchronized Mono<GameLogEvent> latestSnapshot(String gameId) {
+        History history = games.get(gameId);
+        return Mono.justOrEmpty(history == null ? null : history.snapshot);
+    }
+
+    @Override
+    public Mono<Void> saveSnapshot(GameLogEvent snapshot) {
+        return Mono.fromRunnable(() -> {
+                    synchronized (this) {
+                        write(List.of(snapshot));
+                        keepSnapshot(snapshot);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Could not close game log segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    // Tot el lot o res: cada seq ha de seguir l'últim de la seva partida (dins del mateix lot també)
+    private synchronized boolean appendNow(List<GameLogEvent> events) {
+        Map<String, Long> lastSeqs = new HashMap<>();
+        for (GameLogEvent event : events) {
+            long lastSeq = lastSeqs.computeIfAbsent(event.getGameId(),
+                    gameId -> games.containsKey(gameId) ? games.get(gameId).lastSeq() : 0L);
+            if (event.getSeq() != lastSeq + 1) {
+                return false;
+            }
+            lastSeqs.put(event.getGameId(), event.getSeq());
+        }
+
+        write(events);
+        for (GameLogEvent event : events) {
+            games.computeIfAbsent(event.getGameId(), gameId -> new History()).events.add(event);
+        }
+        return true;
+    }
+
+    private void write(List<GameLogEvent> events) {
+        try {
+            if (written >= segmentSize) {
+                writer.close();
+                roll();
+            }
+            for (GameLogEvent event : events) {
+                String line = objectMapper.writeValueAsString(event);
+                writer.write(line);
+                writer.newLine();
+                written += line.length() + 1;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write game log segment " + segment, e);
+        }
+    }
+
+    private void keepSnapshot(GameLogEvent snapshot) {
+        History history = games.computeIfAbsent(snapshot.getGameId(), gameId -> new History());
+        if (history.snapshot == null || history.snapshot.getSeq() < snapshot.getSeq()) {
+            history.snapshot = snapshot;
+        }
+    }
+
+    private void roll() throws IOException {
+        segment++;
+        written = 0;
+        writer = Files.newBufferedWriter(directory.resolve(String.format("%s%06d%s", PREFIX, segment, SUFFIX)),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(PREFIX)
+                            && file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Una línia a mitges (l'aplicació es va aturar mentre escrivia) es descarta
+    private void load(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> {
+                try {
+                    GameLogEvent event = objectMapper.readValue(line, GameLogEvent.class);
+                    event.setId(GameLogEvent.idOf(event.getGameId(), event.getSeq()));
+                    if (event.getType() == GameLogEvent.Type.SNAPSHOT) {
+                        keepSnapshot(event);
+                    } else {
+                        games.computeIfAbsent(event.getGameId(), gameId -> new History()).events.add(event);
+                    }
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable line in {}: {}", file.getFileName(), e.getOriginalMessage());
+                }
+            });
+        }
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,58 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+// Partides ja sumades a les estadístiques (taula settled_games, clau primària game_id)
+@Repository
+@RequiredArgsConstructor
+public class SettledGameRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<String> findRecorded(Collection<String> gameIds) {
+        if (gameIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("SELECT game_id FROM settled_games WHERE game_id IN (:gameIds)")
+                .bind("gameIds", gameIds)
+                .map(row -> row.get("game_id", String.class))
+                .all();
+    }
+
+    // Una partida repetida fa fallar l'INSERT sencer (clau primària): dins d'una transacció, res no es compta dues vegades
+    public Mono<Long> insertAll(List<SettledGame> games) {
+        if (games.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(buildSql(games.size()));
+        for (int i = 0; i < games.size(); i++) {
+            SettledGame game = games.get(i);
+            spec = spec.bind("gameId" + i, game.getGameId())
+                    .bind("playerId" + i, Long.parseLong(game.getPlayerId()))
+                    .bind("status" + i, game.getStatus().name())
+                    .bind("settledAt" + i, game.getSettledAt());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    static String buildSql(int games) {
+        StringBuilder sql = new StringBuilder("INSERT INTO settled_games (game_id, player_id, status, settled_at) VALUES ");
+        for (int i = 0; i < games; i++) {
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:gameId").append(i)
+                    .append(", :playerId").append(i)
+                    .append(", :status").append(i)
+                    .append(", :settledAt").append(i).append(")");
+        }
+        return sql.toString();
+    }
+}
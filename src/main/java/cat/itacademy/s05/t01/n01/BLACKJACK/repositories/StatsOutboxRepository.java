@@ -0,0 +1,40 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Les partides de games amb statsOutbox: les pendents de passar a MySQL (índex parcial statsOutbox_settledAt)
+@Repository
+@RequiredArgsConstructor
+public class StatsOutboxRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    // Les més antigues primer; només es llegeix l'outbox, no la partida sencera
+    public Flux<SettledGame> findPending(int limit) {
+        Query query = Query.query(where("statsOutbox").exists(true))
+                .with(Sort.by(Sort.Direction.ASC, "statsOutbox.settledAt"))
+                .limit(limit);
+        query.fields().include("statsOutbox");
+        return mongoTemplate.find(query, Game.class).map(Game::getStatsOutbox);
+    }
+
+    public Mono<Long> clear(Collection<String> gameIds) {
+        Query query = Query.query(where("id").in(gameIds).and("statsOutbox").exists(true));
+        return mongoTemplate.updateMulti(query, new Update().unset("statsOutbox"), Game.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+}
@@ -0,0 +1,63 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Mètriques del joc: temps de cada operació del servei i partides acabades per resultat.
+// Els temps són observacions: Spring Boot en fa un timer (i, amb tracing, un span) amb el mateix nom.
+@Component
+public class BlackjackMetrics {
+
+    private final ObservationRegistry observationRegistry;
+    private final Map<GameStatus, Counter> outcomes = new EnumMap<>(GameStatus.class);
+
+    public BlackjackMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+        for (GameStatus status : GameStatus.values()) {
+            if (status != GameStatus.IN_PROGRESS) {
+                outcomes.put(status, Counter.builder("blackjack.games.settled")
+                        .description("Games finished, by outcome")
+                        .tag("status", status.name())
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    // El temps va de la subscripció fins que el flux acaba (no fins que es munta); tags: parells clau-valor
+    public <T> Mono<T> observe(Mono<T> mono, String name, String... tags) {
+        Mono<T> named = mono.name(name);
+        for (int i = 0; i < tags.length; i += 2) {
+            named = named.tag(tags[i], tags[i + 1]);
+        }
+        return named.tap(Micrometer.observation(observationRegistry));
+    }
+
+    public <T> Flux<T> observe(Flux<T> flux, String name, String... tags) {
+        Flux<T> named = flux.name(name);
+        for (int i = 0; i < tags.length; i += 2) {
+            named = named.tag(tags[i], tags[i + 1]);
+        }
+        return named.tap(Micrometer.observation(observationRegistry));
+    }
+
+    public void recordOutcome(Game game) {
+        recordOutcome(game.getStatus());
+    }
+
+    public void recordOutcome(GameStatus status) {
+        Counter counter = outcomes.get(status);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.services;
 
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
 import java.util.List;
 
 public interface DeckService {
     List<Card> createShuffledDeck();
     Card drawCard();
-}
\ No newline at end of file
+    Shoe createShoe();
+    Shoe createShoe(int decks);
+    Shoe createShoeExcluding(List<Card> cardsInPlay);
+}
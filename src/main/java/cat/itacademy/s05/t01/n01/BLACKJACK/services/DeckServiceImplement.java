@@ -1,25 +1,30 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.services;
 
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class DeckServiceImplement implements DeckService {
     private final Random random = new Random();
+    private final int decks;
+
+    public DeckServiceImplement(@Value("${blackjack.shoe.decks:1}") int decks) {
+        this.decks = decks;
+    }
 
     @Override
     public List<Card> createShuffledDeck() {
         List<Card> deck = new ArrayList<>();
         for (Card.Suit suit : Card.Suit.values()) {
             for (Card.Rank rank : Card.Rank.values()) {
-                deck.add(Card.builder()
-                        .suit(suit)
-                        .rank(rank)
-                        .build());
+                deck.add(Card.of(suit, rank));
             }
         }
         Collections.shuffle(deck);
@@ -31,4 +36,21 @@ public class DeckServiceImplement implements DeckService {
         List<Card> deck = createShuffledDeck();
         return deck.get(random.nextInt(deck.size()));
     }
-}
\ No newline at end of file
+
+    @Override
+    public Shoe createShoe() {
+        return createShoe(decks);
+    }
+
+    @Override
+    public Shoe createShoe(int decks) {
+        return Shoe.shuffled(decks, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public Shoe createShoeExcluding(List<Card> cardsInPlay) {
+        Shoe shoe = createShoe();
+        cardsInPlay.forEach(shoe::discard);
+        return shoe;
+    }
+}
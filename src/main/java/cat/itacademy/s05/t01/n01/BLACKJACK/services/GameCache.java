@@ -0,0 +1,71 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.GameCacheProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameStore;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+// Cache read-through / write-through de les partides en curs, davant del GameStore.
+// Només hi ha partides IN_PROGRESS: les acabades en surten tan bon punt es desen.
+@Component
+public class GameCache {
+
+    private final GameStore gameStore;
+    private final AsyncCache<String, Game> cache;
+
+    public GameCache(GameStore gameStore, GameCacheProperties properties, MeterRegistry meterRegistry) {
+        this.gameStore = gameStore;
+        if (properties.isEnabled()) {
+            this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumSize())
+                    .expireAfterAccess(properties.getExpireAfterAccess())
+                    .recordStats()
+                    .<String, Game>buildAsync(), "games");
+        } else {
+            this.cache = null;
+        }
+    }
+
+    // Cada crida rep una còpia: les jugades modifiquen la partida abans del findAndModify
+    public Mono<Game> findById(String gameId) {
+        if (cache == null) {
+            return gameStore.findById(gameId);
+        }
+
+        // Peticions simultànies per la mateixa partida comparteixen una sola lectura.
+        // La lectura porta el context de qui la llança perquè el seu span pengi de la petició.
+        return Mono.deferContextual(context -> Mono.fromFuture(cache.get(gameId,
+                        (id, executor) -> gameStore.findById(id).contextWrite(context).toFuture()), true))
+                .doOnNext(game -> {
+                    if (game.getStatus() != GameStatus.IN_PROGRESS) {
+                        cache.synchronous().invalidate(gameId);
+                    }
+                })
+                .map(Game::copy);
+    }
+
+    public void put(Game game) {
+        if (cache == null) {
+            return;
+        }
+        if (game.getStatus() == GameStatus.IN_PROGRESS) {
+            cache.put(game.getId(), CompletableFuture.completedFuture(game.copy()));
+        } else {
+            cache.synchronous().invalidate(game.getId());
+        }
+    }
+
+    public void evict(String gameId) {
+        if (cache != null) {
+            cache.synchronous().invalidate(gameId);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.GameEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.TableStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Canvis de cada partida o taula per als clients connectats pel WebSocket.
+// Els serveis marquen l'estat abans de la jugada i publiquen la diferència un cop desada;
+// si ningú mira aquella partida no es calcula res.
+@Slf4j
+@Component
+public class GameEvents {
+
+    private static final int EVENTS_BUFFER = 256;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    // Com GameMark però per a tots els seients d'una taula
+    public record TableMark(int round, int dealerCards, TableStatus status, int[] seatCards, boolean[] standing,
+                            GameStatus[] seatStatus) {
+    }
+
+    private static class Topic {
+        private final Sinks.Many<GameEvent> sink = Sinks.many().multicast().directBestEffort();
+        private int watchers;
+    }
+
+    public GameEvents(MeterRegistry meterRegistry) {
+        Gauge.builder("blackjack.events.watched", topics, Map::size)
+                .description("Games and tables with at least one WebSocket client")
+                .register(meterRegistry);
+    }
+
+    public Flux<GameEvent> watch(String id) {
+        return Flux.defer(() -> {
+            Topic topic = topics.compute(id, (key, current) -> {
+                Topic watched = current == null ? new Topic() : current;
+                watched.watchers++;
+                return watched;
+            });
+            return topic.sink.asFlux()
+                    .onBackpressureBuffer(EVENTS_BUFFER, dropped -> log.debug("Dropped game event for a slow client"),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> topics.computeIfPresent(id, (key, current) ->
+                            --current.watchers == 0 ? null : current));
+        });
+    }
+
+    public boolean isWatched(String id) {
+        return topics.containsKey(id);
+    }
+
+    public GameMark mark(Game game) {
+        return GameMark.of(game);
+    }
+
+    public TableMark mark(GameTable table) {
+        List<Seat> seats = table.getSeats();
+        int[] seatCards = new int[seats.size()];
+        boolean[] standing = new boolean[seats.size()];
+        GameStatus[] seatStatus = new GameStatus[seats.size()];
+        for (int i = 0; i < seats.size(); i++) {
+            seatCards[i] = seats.get(i).getPlayerCards().size();
+            standing[i] = seats.get(i).isStanding();
+            seatStatus[i] = seats.get(i).getStatus();
+        }
+        return new TableMark(table.getRound(), table.getDealerCards().size(), table.getStatus(), seatCards, standing,
+                seatStatus);
+    }
+
+    public void publish(GameMark before, Game game) {
+        Topic topic = topics.get(game.getId());
+        if (topic != null) {
+            emit(topic, changes(before, game), game.getVersion());
+        }
+    }
+
+    public void publish(TableMark before, GameTable table) {
+        Topic topic = topics.get(table.getId());
+        if (topic != null) {
+            emit(topic, changes(before, table), table.getVersion());
+        }
+    }
+
+    // Les jugades de dues peticions no s'intercalen: cada llista surt sencera, amb la versió desada
+    private void emit(Topic topic, List<GameEvent> events, Long version) {
+        synchronized (topic) {
+            for (GameEvent event : events) {
+                event.setVersion(version);
+                topic.sink.tryEmitNext(event);
+            }
+        }
+    }
+
+    static List<GameEvent> changes(GameMark before, Game game) {
+        List<GameEvent> events = new ArrayList<>();
+        dealt(events, null, GameEvent.Hand.PLAYER, game.getPlayerCards(), before.playerCards(), game.getPlayerScore());
+        dealt(events, null, GameEvent.Hand.DEALER, game.getDealerCards(), before.dealerCards(), game.getDealerScore());
+        if (game.getStatus() != before.status()) {
+            events.add(settled(null, game.getStatus(), game.getWinnings()));
+        }
+        return events;
+    }
+
+    static List<GameEvent> changes(TableMark before, GameTable table) {
+        List<GameEvent> events = new ArrayList<>();
+        // Mà nova: es tornen a enviar totes les cartes
+        boolean newRound = table.getRound() != before.round();
+        if (newRound) {
+            events.add(GameEvent.builder().type(GameEvent.Type.ROUND_STARTED).round(table.getRound()).build());
+        }
+
+        List<Seat> seats = table.getSeats();
+        for (int i = 0; i < seats.size(); i++) {
+            Seat seat = seats.get(i);
+            dealt(events, i, GameEvent.Hand.PLAYER, seat.getPlayerCards(), newRound ? 0 : before.seatCards()[i],
+                    seat.getPlayerScore());
+            if (seat.isStanding() && (newRound || !before.standing()[i])) {
+                events.add(GameEvent.builder().type(GameEvent.Type.STOOD).seat(i).build());
+            }
+            if (seat.getStatus() != GameStatus.IN_PROGRESS
+                    && (newRound || before.seatStatus()[i] == GameStatus.IN_PROGRESS)) {
+                events.add(settled(i, seat.getStatus(), seat.getWinnings()));
+            }
+        }
+        dealt(events, null, GameEvent.Hand.DEALER, table.getDealerCards(), newRound ? 0 : before.dealerCards(),
+                table.getDealerScore());
+
+        if (table.getStatus() == TableStatus.SETTLED && (newRound || before.status() != TableStatus.SETTLED)) {
+            events.add(GameEvent.builder().type(GameEvent.Type.ROUND_SETTLED).round(table.getRound()).build());
+        }
+        return events;
+    }
+
+    private static void dealt(List<GameEvent> events, Integer seat, GameEvent.Hand hand, List<Card> cards, int from,
+                              int score) {
+        if (cards.size() <= from) {
+            return;
+        }
+        for (int i = from; i < cards.size(); i++) {
+            events.add(GameEvent.builder().type(GameEvent.Type.CARD_DEALT).seat(seat).hand(hand).card(cards.get(i)).build());
+        }
+        events.add(GameEvent.builder().type(GameEvent.Type.SCORE_CHANGED).seat(seat).hand(hand).score(score).build());
+    }
+
+    private static GameEvent settled(Integer seat, GameStatus status, double winnings) {
+        return GameEvent.builder()
+                .type(GameEvent.Type.SETTLED)
+                .seat(seat)
+                .status(status.name())
+                .winnings(winnings)
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.JanitorProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Neteja periòdica de games: esborra les partides abandonades i arxiva les acabades fa temps.
+// Cada tasca recorre un cursor en lots de batchSize, un lot rere l'altre: concatMap sense prefetch
+// només demana el lot següent quan l'anterior ja s'ha esborrat o arxivat, i el cursor no llegeix més.
+@Slf4j
+@Component
+public class GameJanitor {
+
+    private final GameArchiveRepository archiveRepository;
+    private final GameCache gameCache;
+    private final JanitorProperties properties;
+    private final BlackjackMetrics metrics;
+
+    private final Counter expired;
+    private final Counter archived;
+
+    private Disposable ticker;
+
+    public record Result(long expired, long archived) {
+    }
+
+    public GameJanitor(GameArchiveRepository archiveRepository,
+                       GameCache gameCache,
+                       JanitorProperties properties,
+                       BlackjackMetrics metrics,
+                       MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.gameCache = gameCache;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.expired = Counter.builder("blackjack.janitor.games")
+                .description("Games removed from the games collection by the janitor")
+                .tag("action", "expired")
+                .register(meterRegistry);
+        this.archived = Counter.builder("blackjack.janitor.games")
+                .description("Games removed from the games collection by the janitor")
+                .tag("action", "archived")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("Game janitor enabled: every {}, abandoned after {}, archived after {}",
+                properties.getInterval(), properties.getAbandonedAfter(), properties.getArchiveAfter());
+        ticker = Flux.interval(properties.getInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> run().onErrorResume(error -> {
+                    log.error("Game janitor run failed: {}", error.getMessage());
+                    return Mono.empty();
+                }))
+                .subscribe(result -> {
+                    if (result.expired() > 0 || result.archived() > 0) {
+                        log.info("Game janitor expired {} abandoned games and archived {} settled games",
+                                result.expired(), result.archived());
+                    }
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    public Mono<Result> run() {
+        LocalDateTime now = LocalDateTime.now();
+        return expireAbandoned(now.minus(properties.getAbandonedAfter()))
+                .zipWith(archiveSettled(now.minus(properties.getArchiveAfter())), Result::new);
+    }
+
+    public Mono<Long> expireAbandoned(LocalDateTime idleSince) {
+        Mono<Long> removed = archiveRepository.findAbandonedIds(idleSince, properties.getBatchSize())
+                .buffer(properties.getBatchSize())
+                .concatMap(ids -> archiveRepository.deleteAbandoned(ids, idleSince)
+                        .doOnNext(deleted -> {
+                            expired.increment(deleted);
+                            ids.forEach(gameCache::evict);
+                        }), 0)
+                .reduce(0L, Long::sum);
+        return metrics.observe(removed, "blackjack.janitor.run", "task", "expire");
+    }
+
+    public Mono<Long> archiveSettled(LocalDateTime settledBefore) {
+        Mono<Long> moved = archiveRepository.findArchivable(settledBefore, properties.getBatchSize())
+                .buffer(properties.getBatchSize())
+                .concatMap(games -> archiveRepository.archive(games, settledBefore)
+                        .doOnNext(archived::increment), 0)
+                .reduce(0L, Long::sum);
+        return metrics.observe(moved, "blackjack.janitor.run", "task", "archive");
+    }
+}
@@ -2,12 +2,20 @@ package cat.itacademy.s05.t01.n01.BLACKJACK.services;
 
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateGameRequest;
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlaySequenceRequest;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface GameService {
     Mono<Game> createGame(CreateGameRequest request);
+    Flux<Game> createGames(List<CreateGameRequest> requests);
     Mono<Game> getGame(String gameId);
+    Flux<GameLogEvent> getGameHistory(String gameId);
     Mono<Game> playGame(String gameId, PlayRequest play);
+    Flux<Game> playSequence(String gameId, PlaySequenceRequest request);
     Mono<Void> deleteGame(String gameId);
 }
\ No newline at end of file
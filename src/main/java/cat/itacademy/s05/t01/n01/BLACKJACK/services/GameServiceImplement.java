@@ -2,15 +2,25 @@ package cat.itacademy.s05.t01.n01.BLACKJACK.services;
 
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateGameRequest;
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlaySequenceRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.engine.BlackjackRules;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameConflictException;
 import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameNotFoundException;
 import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.InvalidGameException;  // ✅ Ara existeix
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
-import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameRepository;  // ✅ Respectem el teu nom
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
@@ -23,99 +33,204 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class GameServiceImplement implements GameService {
 
-    private final GameRepository gameRepository;
+    private final GameStore gameStore;
     private final PlayerService playerService;
     private final DeckServiceImplement deckService;
+    private final GameCache gameCache;
+    private final BlackjackMetrics metrics;
+    private final GameEvents events;
+    private final StatsOutboxRelay statsOutbox;
+
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @Override
     public Mono<Game> createGame(CreateGameRequest request) {
-        log.info("Creating new game for player: {}", request.getPlayerName());
-
-        return playerService.findOrCreatePlayer(request.getPlayerName())
-                .flatMap(player -> {
-
-                    Game game = Game.builder()
-                            .id(UUID.randomUUID().toString())
-                            .playerId(player.getId().toString())
-                            .playerName(player.getName())
-                            .playerCards(new ArrayList<>())
-                            .dealerCards(new ArrayList<>())
-                            .playerScore(0)
-                            .dealerScore(0)
-                            .status(GameStatus.IN_PROGRESS)
-                            .bet(request.getBet())
-                            .winnings(0.0)
-                            .createdAt(LocalDateTime.now())
-                            .updatedAt(LocalDateTime.now())
-                            .build();
-
-                    // Repartir cartes inicials
-                    dealInitialCards(game);
-
-                    return gameRepository.save(game);
-                });
+        log.debug("Creating new game for player: {}", request.getPlayerName());
+
+        Mono<Game> game = playerService.findOrCreatePlayer(request.getPlayerName())
+                .flatMap(player -> gameStore.create(newGame(player, request.getBet()))
+                        .doOnNext(gameCache::put)
+                        .doOnNext(metrics::recordOutcome));
+        return metrics.observe(game, "blackjack.game.create");
+    }
+
+    @Override
+    public Flux<Game> createGames(List<CreateGameRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            return Flux.error(new InvalidGameException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " games"));
+        }
+        for (CreateGameRequest request : requests) {
+            if (request.getPlayerName() == null || request.getPlayerName().isBlank() || request.getBet() <= 0) {
+                return Flux.error(new InvalidGameException("Every game needs a player name and a positive bet"));
+            }
+        }
+        log.debug("Creating batch of {} games", requests.size());
+
+        // Tots els noms d'una vegada i un sol insert al GameStore
+        Flux<Game> games = playerService.findOrCreatePlayers(requests.stream().map(CreateGameRequest::getPlayerName).toList())
+                .flatMapMany(players -> gameStore.createAll(requests.stream()
+                        .map(request -> newGame(players.get(request.getPlayerName()), request.getBet()))
+                        .toList()))
+                .doOnNext(gameCache::put)
+                .doOnNext(metrics::recordOutcome);
+        return metrics.observe(games, "blackjack.game.create.batch");
     }
 
     @Override
     public Mono<Game> getGame(String gameId) {
-        return gameRepository.findById(gameId)
+        return gameCache.findById(gameId)
                 .switchIfEmpty(Mono.error(new GameNotFoundException("Game not found with id: " + gameId)));
     }
 
+    @Override
+    public Flux<GameLogEvent> getGameHistory(String gameId) {
+        return gameStore.history(gameId)
+                .switchIfEmpty(Flux.error(new GameNotFoundException("Game not found with id: " + gameId)));
+    }
+
     @Override
     public Mono<Game> playGame(String gameId, PlayRequest playRequest) {
-        return getGame(gameId)
+        Mono<Game> play = getGame(gameId)
+                .flatMap(game -> {
+                    GameMark before = events.mark(game);
+                    return applyAction(game, playRequest.getAction())
+                            .flatMap(played -> persistPlay(gameId, played, before));
+                });
+        return metrics.observe(play, "blackjack.game.play", "action", playRequest.getAction().name().toLowerCase());
+    }
+
+    @Override
+    public Flux<Game> playSequence(String gameId, PlaySequenceRequest request) {
+        if ((request.getActions() == null) == (request.getHitUntil() == null)) {
+            return Flux.error(new InvalidGameException("Send either a list of actions or a hit-until target"));
+        }
+
+        // Totes les jugades en memòria sobre la mateixa partida; es desa una sola vegada al final
+        Flux<Game> plays = getGame(gameId)
                 .flatMap(game -> {
-                    if (game.getStatus() != GameStatus.IN_PROGRESS) {
-                        return Mono.error(new InvalidGameException("Game is not in progress"));
-                    }
-
-                    switch (playRequest.getAction()) {
-                        case HIT:
-                            return handleHit(game);
-                        case STAND:
-                            return handleStand(game);
-                        default:
-                            return Mono.error(new IllegalArgumentException("Invalid action"));
-                    }
+                    GameMark before = events.mark(game);
+                    return playAll(game, request)
+                            .map(Game::copy)
+                            .collectList()
+                            .flatMap(states -> persistPlay(gameId, game, before)
+                                    .map(saved -> {
+                                        states.set(states.size() - 1, saved);
+                                        return states;
+                                    }));
                 })
-                .flatMap(gameRepository::save)
-                .flatMap(this::updatePlayerStats);
+                .flatMapIterable(states -> states);
+        return metrics.observe(plays, "blackjack.game.play", "action", "sequence");
     }
 
     @Override
     public Mono<Void> deleteGame(String gameId) {
-        return gameRepository.deleteById(gameId);
+        return gameStore.deleteById(gameId)
+                .doOnSuccess(ignored -> gameCache.evict(gameId));
     }
 
-    private void dealInitialCards(Game game) {
-        List<Card> deck = deckService.createShuffledDeck();
+    private Mono<Game> applyAction(Game game, PlayRequest.PlayAction action) {
+        if (game.getStatus() != GameStatus.IN_PROGRESS) {
+            return Mono.error(new InvalidGameException("Game is not in progress"));
+        }
 
+        switch (action) {
+            case HIT:
+                return handleHit(game);
+            case STAND:
+                return handleStand(game);
+            default:
+                return Mono.error(new IllegalArgumentException("Invalid action"));
+        }
+    }
 
-        game.getPlayerCards().add(deck.get(0));
-        game.getDealerCards().add(deck.get(1));
-        game.getPlayerCards().add(deck.get(2));
-        game.getDealerCards().add(deck.get(3));
+    // Un estat per jugada; qualsevol jugada no permesa anul·la tota la seqüència
+    private Flux<Game> playAll(Game game, PlaySequenceRequest request) {
+        if (request.getActions() != null) {
+            return Flux.fromIterable(request.getActions())
+                    .concatMap(action -> applyAction(game, action));
+        }
 
-        game.setPlayerScore(calculateScore(game.getPlayerCards()));
-        game.setDealerScore(calculateScore(game.getDealerCards()));
+        int target = request.getHitUntil();
+        return Mono.defer(() -> applyAction(game, playerHandOf(game).getScore() < target
+                        ? PlayRequest.PlayAction.HIT
+                        : PlayRequest.PlayAction.STAND))
+                .repeat(() -> game.getStatus() == GameStatus.IN_PROGRESS);
+    }
 
-        // Comprovar Blackjack immediat
-        if (game.getPlayerScore() == 21) {
-            game.setStatus(GameStatus.PLAYER_BLACKJACK);
-            game.setWinnings(game.getBet() * 1.5);  // Blackjack paga 1.5x
+    private Mono<Game> persistPlay(String gameId, Game game, GameMark before) {
+        // Amb l'outbox, el resultat i el registre per a MySQL van en la mateixa escriptura a Mongo
+        boolean outbox = statsOutbox.isEnabled() && game.getStatus() != GameStatus.IN_PROGRESS;
+        if (outbox) {
+            game.setStatsOutbox(SettledGame.of(game));
+        }
+
+        return gameStore.updateIfInProgress(game, before)
+                .doOnNext(gameCache::put)
+                .doOnNext(metrics::recordOutcome)
+                .switchIfEmpty(Mono.defer(() -> {
+                    // La còpia en cache pot ser antiga (per exemple, jugada des d'una altra instància)
+                    gameCache.evict(gameId);
+                    return Mono.error(new GameConflictException(
+                            "Game was modified by another request: " + gameId));
+                }))
+                // Només el que ja està desat arriba als clients connectats
+                .doOnNext(saved -> events.publish(before, saved))
+                .flatMap(saved -> outbox ? Mono.just(saved) : updatePlayerStats(saved));
+    }
+
+    private Game newGame(Player player, double bet) {
+        Game game = Game.builder()
+                .id(UUID.randomUUID().toString())
+                .playerId(player.getId().toString())
+                .playerName(player.getName())
+                .playerCards(new ArrayList<>())
+                .dealerCards(new ArrayList<>())
+                .playerScore(0)
+                .dealerScore(0)
+                .status(GameStatus.IN_PROGRESS)
+                .bet(bet)
+                .winnings(0.0)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        // Repartir cartes inicials
+        dealInitialCards(game);
+        return game;
+    }
+
+    private void dealInitialCards(Game game) {
+        Shoe shoe = deckService.createShoe();
+        HandValue playerHand = new HandValue();
+        HandValue dealerHand = new HandValue();
+        game.setShoe(shoe);
+        game.setPlayerHand(playerHand);
+        game.setDealerHand(dealerHand);
+
+        dealCard(shoe, game.getPlayerCards(), playerHand);
+        dealCard(shoe, game.getDealerCards(), dealerHand);
+        dealCard(shoe, game.getPlayerCards(), playerHand);
+        dealCard(shoe, game.getDealerCards(), dealerHand);
+
+        game.setPlayerScore(playerHand.getScore());
+        game.setDealerScore(dealerHand.getScore());
+
+        // Comprovar Blackjack immediat (paga 1.5x)
+        GameStatus status = BlackjackRules.afterDeal(playerHand);
+        if (status != GameStatus.IN_PROGRESS) {
+            finish(game, status);
         }
     }
 
     private Mono<Game> handleHit(Game game) {
-        Card newCard = deckService.drawCard();
-        game.getPlayerCards().add(newCard);
-        game.setPlayerScore(calculateScore(game.getPlayerCards()));
+        HandValue playerHand = playerHandOf(game);
+        dealCard(shoeOf(game), game.getPlayerCards(), playerHand);
+        game.setPlayerScore(playerHand.getScore());
         game.setUpdatedAt(LocalDateTime.now());
 
-        if (game.getPlayerScore() > 21) {
-            game.setStatus(GameStatus.PLAYER_BUST);
-            game.setWinnings(-game.getBet());  // Perd l'aposta
+        GameStatus status = BlackjackRules.afterHit(playerHand);
+        if (status != GameStatus.IN_PROGRESS) {
+            finish(game, status);  // Perd l'aposta
         }
 
         return Mono.just(game);
@@ -123,56 +238,52 @@ public class GameServiceImplement implements GameService {
 
     private Mono<Game> handleStand(Game game) {
         // La casa juga automàticament
-        while (game.getDealerScore() < 17) {
-            Card newCard = deckService.drawCard();
-            game.getDealerCards().add(newCard);
-            game.setDealerScore(calculateScore(game.getDealerCards()));
+        Shoe shoe = shoeOf(game);
+        HandValue dealerHand = dealerHandOf(game);
+        while (BlackjackRules.dealerMustHit(dealerHand)) {
+            dealCard(shoe, game.getDealerCards(), dealerHand);
         }
+        game.setDealerScore(dealerHand.getScore());
 
         // Determinar guanyador
-        determineWinner(game);
+        finish(game, BlackjackRules.settle(playerHandOf(game), dealerHand));
         game.setUpdatedAt(LocalDateTime.now());
 
         return Mono.just(game);
     }
 
-    private void determineWinner(Game game) {
-        int playerScore = game.getPlayerScore();
-        int dealerScore = game.getDealerScore();
-
-        if (dealerScore > 21) {
-            game.setStatus(GameStatus.DEALER_BUST);
-            game.setWinnings(game.getBet());
-        } else if (playerScore > dealerScore) {
-            game.setStatus(GameStatus.PLAYER_WIN);
-            game.setWinnings(game.getBet());
-        } else if (dealerScore > playerScore) {
-            game.setStatus(GameStatus.DEALER_WIN);
-            game.setWinnings(-game.getBet());
-        } else {
-            game.setStatus(GameStatus.PUSH);
-            game.setWinnings(0.0);  // Empat
-        }
+    private void dealCard(Shoe shoe, List<Card> cards, HandValue hand) {
+        cards.add(BlackjackRules.deal(shoe, hand));
     }
 
-    private int calculateScore(List<Card> cards) {
-        int score = 0;
-        int aces = 0;
+    private void finish(Game game, GameStatus status) {
+        game.setStatus(status);
+        game.setWinnings(BlackjackRules.winnings(status, game.getBet()));
+    }
 
-        for (Card card : cards) {
-            if (card.getRank() == Card.Rank.ACE) {
-                aces++;
-            }
-            score += card.getValue();
+    // Partides desades abans del shoe persistent: se'n crea un sense les cartes ja repartides
+    private Shoe shoeOf(Game game) {
+        if (game.getShoe() == null) {
+            List<Card> cardsInPlay = new ArrayList<>(game.getPlayerCards());
+            cardsInPlay.addAll(game.getDealerCards());
+            game.setShoe(deckService.createShoeExcluding(cardsInPlay));
         }
+        return game.getShoe();
+    }
 
-        // Ajustar asos (11 → 1 si cal per evitar bust)
-        while (score > 21 && aces > 0) {
-            score -= 10;
-            aces--;
+    // Partides desades abans de guardar el valor de la mà: es calcula una sola vegada
+    private HandValue playerHandOf(Game game) {
+        if (game.getPlayerHand() == null) {
+            game.setPlayerHand(HandValue.of(game.getPlayerCards()));
         }
+        return game.getPlayerHand();
+    }
 
-        return score;
+    private HandValue dealerHandOf(Game game) {
+        if (game.getDealerHand() == null) {
+            game.setDealerHand(HandValue.of(game.getDealerCards()));
+        }
+        return game.getDealerHand();
     }
 
     private Mono<Game> updatePlayerStats(Game game) {
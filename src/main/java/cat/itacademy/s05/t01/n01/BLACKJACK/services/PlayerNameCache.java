@@ -0,0 +1,65 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.PlayerCacheProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+// Nom → jugador per crear partides sense anar a MySQL. Només se'n fan servir l'id i el nom:
+// les estadístiques de la còpia en cache no s'actualitzen. La clau és el nameKey, igual que
+// MySQL compara els noms, perquè totes les variants d'un nom caiguin a la mateixa entrada.
+@Component
+public class PlayerNameCache {
+
+    private final AsyncCache<String, Player> cache;
+
+    public PlayerNameCache(PlayerCacheProperties properties, MeterRegistry meterRegistry) {
+        if (properties.isEnabled()) {
+            this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumSize())
+                    .expireAfterWrite(properties.getExpireAfterWrite())
+                    .recordStats()
+                    .<String, Player>buildAsync(), "players.by-name");
+        } else {
+            this.cache = null;
+        }
+    }
+
+    // Les peticions simultànies pel mateix nom comparteixen el mateix Mono en curs,
+    // que porta el context (i la trace) de la primera
+    public Mono<Player> get(String name, Function<String, Mono<Player>> loader) {
+        if (cache == null) {
+            return loader.apply(name);
+        }
+        return Mono.deferContextual(context -> Mono.fromFuture(cache.get(PlayerServiceImplement.nameKey(name),
+                        (key, executor) -> loader.apply(name).contextWrite(context).toFuture()), true))
+                .map(player -> player.toBuilder().build());
+    }
+
+    public Player getIfPresent(String name) {
+        if (cache == null) {
+            return null;
+        }
+        Player player = cache.synchronous().getIfPresent(PlayerServiceImplement.nameKey(name));
+        return player == null ? null : player.toBuilder().build();
+    }
+
+    public void put(Player player) {
+        if (cache != null) {
+            cache.put(PlayerServiceImplement.nameKey(player.getName()), CompletableFuture.completedFuture(player.toBuilder().build()));
+        }
+    }
+
+    public void evict(String name) {
+        if (cache != null) {
+            cache.synchronous().invalidate(PlayerServiceImplement.nameKey(name));
+        }
+    }
+}
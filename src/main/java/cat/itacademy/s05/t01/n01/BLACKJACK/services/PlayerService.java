@@ -1,15 +1,31 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.services;
 
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankChange;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankedPlayer;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface PlayerService {
     Mono<Player> findOrCreatePlayer(String name);
+    Mono<Map<String, Player>> findOrCreatePlayers(Collection<String> names);
     Mono<Player> updatePlayerName(Long playerId, String newName);
     Mono<Void> updatePlayerStats(Long playerId, Game game);
+    Mono<Void> updatePlayersStats(Collection<Seat> seats);
+    Mono<Integer> applySettledGames(List<SettledGame> games);
     Flux<Player> getRanking();
+    Flux<Player> getTopPlayers(int limit);
+    Flux<Player> getRankingAfter(Long playerId, int limit);
+    Flux<Player> getRankingAround(Long playerId, int limit);
+    Mono<RankedPlayer> getPlayerRank(Long playerId);
+    Flux<RankChange> getRankingChanges();
 }
 
 
@@ -1,32 +1,124 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.services;
 
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankChange;
+import cat.itacademy.s05.t01.n01.BLACKJACK.engine.BlackjackRules;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankedPlayer;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.BlackjackException;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.StatsDelta;
 import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.PlayerNotFoundException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerBatchRepository;
 import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerStatsBatchRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.SettledGameRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.text.Normalizer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PlayerServiceImplement implements PlayerService {
 
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
     private final PlayerRepository playerRepository;
+    private final PlayerStatsWriteBehind statsWriteBehind;
+    private final RankingIndex rankingIndex;
+    private final PlayerNameCache playerNameCache;
+    private final PlayerBatchRepository playerBatchRepository;
+    private final PlayerStatsBatchRepository statsBatchRepository;
+    private final SettledGameRepository settledGameRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final BlackjackMetrics metrics;
 
     @Override
     public Mono<Player> findOrCreatePlayer(String name) {
-        log.info("Finding or creating player with name: {}", name);
+        log.debug("Finding or creating player with name: {}", name);
 
-        return playerRepository.findByName(name)
-                .doOnNext(player -> log.info("Player found: {}", player.getName()))
-                .switchIfEmpty(createNewPlayer(name));
+        // Jugadors habituals: cap consulta a MySQL
+        return metrics.observe(playerNameCache.get(name, this::findOrInsertPlayer), "blackjack.player.find_or_create");
+    }
+
+    @Override
+    public Mono<Map<String, Player>> findOrCreatePlayers(Collection<String> names) {
+        Map<String, Player> players = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : new LinkedHashSet<>(names)) {
+            Player cached = playerNameCache.getIfPresent(name);
+            if (cached != null) {
+                players.put(name, cached);
+            } else {
+                missing.add(name);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(players);
+        }
+
+        // Un SELECT ... IN per als que no són a la cache i un INSERT multi-fila per als nous.
+        // MySQL compara els noms sense majúscules ni accents: "Anna" troba la fila "anna", així que
+        // les files es busquen per nameKey i el mapa queda amb els noms demanats
+        return playerRepository.findByNameIn(missing)
+                .collectMap(player -> nameKey(player.getName()))
+                .flatMap(found -> {
+                    Map<String, String> newNames = new LinkedHashMap<>();
+                    for (String name : missing) {
+                        if (!found.containsKey(nameKey(name))) {
+                            newNames.putIfAbsent(nameKey(name), name);
+                        }
+                    }
+                    if (newNames.isEmpty()) {
+                        return Mono.just(found);
+                    }
+                    log.debug("Creating {} new players in one batch", newNames.size());
+                    List<String> inserted = List.copyOf(newNames.values());
+                    return playerBatchRepository.insertAllIfAbsent(inserted)
+                            .thenMany(playerRepository.findByNameIn(inserted))
+                            .doOnNext(rankingIndex::upsert)
+                            .collectMap(player -> nameKey(player.getName()))
+                            .map(created -> {
+                                found.putAll(created);
+                                return found;
+                            });
+                })
+                .flatMap(found -> {
+                    for (String name : missing) {
+                        Player player = found.get(nameKey(name));
+                        if (player == null) {
+                            return Mono.error(new PlayerNotFoundException("Player not found with name: " + name));
+                        }
+                        playerNameCache.put(player);
+                        players.put(name, player);
+                    }
+                    return Mono.just(players);
+                });
+    }
+
+    // Aproximació a la col·lació utf8mb4_0900_ai_ci: sense accents i sense distingir majúscules
+    static String nameKey(String name) {
+        return COMBINING_MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
     }
 
     @Override
@@ -36,93 +128,260 @@ public class PlayerServiceImplement implements PlayerService {
         return playerRepository.findById(playerId)
                 .switchIfEmpty(Mono.error(new PlayerNotFoundException("Player not found with ID: " + playerId)))
                 .flatMap(player -> {
+                    String previousName = player.getName();
                     player.setName(newName);
                     player.setUpdatedAt(LocalDateTime.now());
-                    return playerRepository.save(player);
+                    return playerRepository.save(player)
+                            .doOnNext(saved -> {
+                                playerNameCache.evict(previousName);
+                                playerNameCache.evict(newName);
+                            });
                 })
+                .doOnNext(rankingIndex::upsert)
                 .doOnSuccess(player -> log.info("Player name updated successfully for ID: {}", playerId))
                 .doOnError(error -> log.error("Error updating player name: {}", error.getMessage()));
     }
 
     @Override
     public Mono<Void> updatePlayerStats(Long playerId, Game game) {
-        log.info("Updating stats for player ID: {} based on game: {}", playerId, game.getId());
+        return metrics.observe(applyStats(playerId, game), "blackjack.player.stats.update");
+    }
 
-        return playerRepository.findById(playerId)
-                .switchIfEmpty(Mono.error(new PlayerNotFoundException("Player not found with ID: " + playerId)))
-                .flatMap(player -> {
-                    // Actualitzar estadístiques basades en el joc
-                    player.setGamesPlayed(player.getGamesPlayed() + 1);
-                    player.setUpdatedAt(LocalDateTime.now());
+    @Override
+    public Mono<Void> updatePlayersStats(Collection<Seat> seats) {
+        return metrics.observe(applyStats(seats), "blackjack.player.stats.update", "scope", "table");
+    }
+
+    @Override
+    public Mono<Integer> applySettledGames(List<SettledGame> games) {
+        return metrics.observe(applyOnce(games), "blackjack.player.stats.update", "scope", "outbox");
+    }
 
-                    // Determinar si el jugador ha guanyat
-                    boolean playerWon = determinePlayerWin(game);
+    @Override
+    public Flux<Player> getRanking() {
+        return metrics.observe(fullRanking(), "blackjack.ranking", "query", "all");
+    }
 
-                    if (playerWon) {
-                        player.setGamesWon(player.getGamesWon() + 1);
-                        // Assumint que hi ha algun sistema de guanys
-                        player.setTotalWinnings(player.getTotalWinnings() + calculateWinnings(game));
-                        log.info("Player {} won the game", player.getName());
-                    }
+    @Override
+    public Flux<Player> getTopPlayers(int limit) {
+        return metrics.observe(topPlayers(limit), "blackjack.ranking", "query", "top");
+    }
+
+    @Override
+    public Flux<Player> getRankingAfter(Long playerId, int limit) {
+        return metrics.observe(rankingAfter(playerId, limit), "blackjack.ranking", "query", "after");
+    }
+
+    @Override
+    public Flux<Player> getRankingAround(Long playerId, int limit) {
+        return metrics.observe(rankingAround(playerId, limit), "blackjack.ranking", "query", "around");
+    }
+
+    @Override
+    public Mono<RankedPlayer> getPlayerRank(Long playerId) {
+        return metrics.observe(playerRank(playerId), "blackjack.ranking", "query", "rank");
+    }
+
+    @Override
+    public Flux<RankChange> getRankingChanges() {
+        return rankingIndex.changes();
+    }
+
+    // Mètodes privats auxiliars
+    private Mono<Void> applyStats(Long playerId, Game game) {
+        log.debug("Updating stats for player ID: {} based on game: {}", playerId, game.getId());
 
-                    // Calcular win rate
-                    double winRate = player.getGamesPlayed() > 0 ?
-                            (double) player.getGamesWon() / player.getGamesPlayed() * 100.0 : 0.0;
-                    player.setWinRate(Math.round(winRate * 100.0) / 100.0);
+        // Determinar si el jugador ha guanyat
+        boolean playerWon = determinePlayerWin(game.getStatus());
 
-                    return playerRepository.save(player);
+        StatsDelta delta = StatsDelta.ofGame(playerWon, calculateWinnings(game.getStatus()));
+
+        if (statsWriteBehind.isEnabled()) {
+            return statsWriteBehind.record(playerId, delta);
+        }
+
+        // Un sol UPDATE atòmic: cap increment es perd si acaben dues partides alhora
+        return playerRepository.incrementStats(playerId, delta.gamesWon(), delta.winnings())
+                .flatMap(updatedRows -> updatedRows == 0
+                        ? Mono.<Void>error(new PlayerNotFoundException("Player not found with ID: " + playerId))
+                        : Mono.<Void>empty())
+                .doOnSuccess(ignored -> rankingIndex.applyDelta(playerId, delta))
+                .doOnSuccess(ignored -> log.debug("Player stats updated successfully for ID: {}", playerId))
+                .doOnError(error -> log.error("Error updating player stats: {}", error.getMessage()));
+    }
+
+    // Tots els seients d'una mà amb un sol UPDATE (un jugador en dos seients suma les dues mans)
+    private Mono<Void> applyStats(Collection<Seat> seats) {
+        Map<Long, StatsDelta> deltas = new HashMap<>();
+        for (Seat seat : seats) {
+            StatsDelta delta = StatsDelta.ofGame(determinePlayerWin(seat.getStatus()), calculateWinnings(seat.getStatus()));
+            deltas.merge(Long.parseLong(seat.getPlayerId()), delta, StatsDelta::plus);
+        }
+
+        if (statsWriteBehind.isEnabled()) {
+            return Flux.fromIterable(deltas.entrySet())
+                    .concatMap(entry -> statsWriteBehind.record(entry.getKey(), entry.getValue()))
+                    .then();
+        }
+
+        return statsBatchRepository.applyDeltas(deltas)
+                .doOnNext(updatedRows -> {
+                    if (updatedRows < deltas.size()) {
+                        log.warn("Table stats for {} players updated only {} rows", deltas.size(), updatedRows);
+                    }
+                    deltas.forEach(rankingIndex::applyDelta);
                 })
-                .doOnSuccess(player -> log.info("Player stats updated successfully for ID: {}", playerId))
-                .doOnError(error -> log.error("Error updating player stats: {}", error.getMessage()))
+                .doOnError(error -> log.error("Error updating table stats: {}", error.getMessage()))
                 .then();
     }
 
-    @Override
-    public Flux<Player> getRanking() {
-        log.info("Fetching player ranking");
+    // Les partides que encara no són a settled_games: s'hi afegeixen i se sumen als jugadors en la mateixa
+    // transacció. Si dues instàncies envien la mateixa partida, l'INSERT de la segona falla i no suma res.
+    private Mono<Integer> applyOnce(List<SettledGame> games) {
+        Mono<Map<Long, StatsDelta>> applied = settledGameRepository.findRecorded(
+                        games.stream().map(SettledGame::getGameId).toList())
+                .collect(Collectors.toSet())
+                .flatMap(recorded -> {
+                    List<SettledGame> pending = games.stream()
+                            .filter(game -> !recorded.contains(game.getGameId()))
+                            .toList();
+                    Map<Long, StatsDelta> deltas = new HashMap<>();
+                    for (SettledGame game : pending) {
+                        StatsDelta delta = StatsDelta.ofGame(determinePlayerWin(game.getStatus()),
+                                calculateWinnings(game.getStatus()));
+                        deltas.merge(Long.parseLong(game.getPlayerId()), delta, StatsDelta::plus);
+                    }
+                    return settledGameRepository.insertAll(pending)
+                            .then(statsBatchRepository.applyDeltas(deltas))
+                            .doOnNext(updatedRows -> {
+                                if (updatedRows < deltas.size()) {
+                                    log.warn("Outbox stats for {} players updated only {} rows", deltas.size(), updatedRows);
+                                }
+                            })
+                            .thenReturn(deltas);
+                })
+                .as(transactionalOperator::transactional);
 
-        return playerRepository.findAllOrderByRanking()
-                .doOnNext(player -> log.debug("Processing player for ranking: {} - Win Rate: {}%",
-                        player.getName(), player.getWinRate()))
-                .doOnComplete(() -> log.info("Player ranking fetched successfully"))
+        // L'índex del rànquing només canvia quan MySQL ja ha fet el commit
+        return applied
+                .doOnNext(deltas -> deltas.forEach(rankingIndex::applyDelta))
+                .map(deltas -> deltas.values().stream().mapToInt(StatsDelta::gamesPlayed).sum());
+    }
+
+    private Flux<Player> fullRanking() {
+        log.debug("Fetching player ranking");
+
+        if (rankingIndex.isReady()) {
+            return Flux.fromIterable(rankingIndex.top(Integer.MAX_VALUE));
+        }
+
+        Flux<Player> ranking = playerRepository.findAllOrderByRanking();
+        // Log per fila només amb DEBUG actiu: si no, l'operador ni tan sols s'afegeix
+        if (log.isDebugEnabled()) {
+            ranking = ranking
+                    .doOnNext(player -> log.debug("Processing player for ranking: {} - Win Rate: {}%",
+                            player.getName(), player.getWinRate()))
+                    .doOnComplete(() -> log.debug("Player ranking fetched successfully"));
+        }
+        return ranking
                 .doOnError(error -> log.error("Error fetching player ranking: {}", error.getMessage()));
     }
 
-    // Mètodes privats auxiliars
-    private Mono<Player> createNewPlayer(String name) {
-        log.info("Creating new player with name: {}", name);
-
-        Player newPlayer = Player.builder()
-                .name(name)
-                .gamesPlayed(0)
-                .gamesWon(0)
-                .totalWinnings(0.0)
-                .winRate(0.0)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        return playerRepository.save(newPlayer)
-                .doOnSuccess(player -> log.info("New player created successfully with ID: {}", player.getId()));
+    private Flux<Player> topPlayers(int limit) {
+        if (limit < 1) {
+            return Flux.error(new BlackjackException("Limit must be positive"));
+        }
+
+        if (rankingIndex.isReady()) {
+            return Flux.fromIterable(rankingIndex.top(limit));
+        }
+
+        return playerRepository.findRankingPage(limit);
     }
 
-    private boolean determinePlayerWin(Game game) {
-        GameStatus status = game.getStatus();
+    private Flux<Player> rankingAfter(Long playerId, int limit) {
+        if (limit < 1) {
+            return Flux.error(new BlackjackException("Limit must be positive"));
+        }
+
+        if (rankingIndex.isReady()) {
+            return Mono.justOrEmpty(rankingIndex.pageAfter(playerId, limit))
+                    .switchIfEmpty(Mono.error(new PlayerNotFoundException("Player not found with ID: " + playerId)))
+                    .flatMapIterable(players -> players);
+        }
 
-        // El jugador guanya en aquests casos:
-        return status == GameStatus.PLAYER_WIN ||
-                status == GameStatus.PLAYER_BLACKJACK ||
-                status == GameStatus.DEALER_BUST;
+        // El cursor és l'últim jugador de la pàgina anterior: es continua des dels seus valors actuals
+        return findPlayer(playerId)
+                .flatMapMany(player -> playerRepository.findRankingPageAfter(
+                        player.getWinRate(), player.getTotalWinnings(), player.getId(), limit));
     }
 
-    private double calculateWinnings(Game game) {
-        GameStatus status = game.getStatus();
+    private Flux<Player> rankingAround(Long playerId, int limit) {
+        if (limit < 1) {
+            return Flux.error(new BlackjackException("Limit must be positive"));
+        }
+
+        // Finestra centrada en el jugador: la meitat per davant, la resta per darrere
+        int before = (limit - 1) / 2;
+        int after = limit - 1 - before;
+
+        if (rankingIndex.isReady()) {
+            return Mono.justOrEmpty(rankingIndex.around(playerId, before, after))
+                    .switchIfEmpty(Mono.error(new PlayerNotFoundException("Player not found with ID: " + playerId)))
+                    .flatMapIterable(players -> players);
+        }
+
+        return findPlayer(playerId)
+                .flatMapMany(player -> Flux.concat(
+                        playerRepository.findRankingPageBefore(
+                                        player.getWinRate(), player.getTotalWinnings(), player.getId(), before)
+                                .collectList()
+                                .flatMapIterable(ahead -> ahead.reversed()),
+                        Mono.just(player),
+                        playerRepository.findRankingPageAfter(
+                                player.getWinRate(), player.getTotalWinnings(), player.getId(), after)));
+    }
+
+    private Mono<RankedPlayer> playerRank(Long playerId) {
+        if (rankingIndex.isReady()) {
+            return Mono.justOrEmpty(rankingIndex.rankOf(playerId))
+                    .switchIfEmpty(Mono.error(new PlayerNotFoundException("Player not found with ID: " + playerId)));
+        }
+
+        // COUNT sobre l'índex de rànquing en lloc de recórrer tota la taula
+        return findPlayer(playerId)
+                .flatMap(player -> playerRepository.countPlayersAhead(
+                                player.getWinRate(), player.getTotalWinnings(), player.getId())
+                        .map(ahead -> new RankedPlayer(ahead.intValue() + 1, player)));
+    }
+
+    private Mono<Player> findPlayer(Long playerId) {
+        return playerRepository.findById(playerId)
+                .switchIfEmpty(Mono.error(new PlayerNotFoundException("Player not found with ID: " + playerId)));
+    }
+
+    private Mono<Player> findOrInsertPlayer(String name) {
+        return playerRepository.findByName(name)
+                .doOnNext(player -> log.debug("Player found: {}", player.getName()))
+                .switchIfEmpty(Mono.defer(() -> createNewPlayer(name)));
+    }
+
+    private Mono<Player> createNewPlayer(String name) {
+        log.debug("Creating new player with name: {}", name);
+
+        // Dues primeres partides simultànies amb el mateix nom acaben al mateix jugador
+        return playerRepository.insertIfAbsent(name)
+                .then(playerRepository.findByName(name))
+                .doOnNext(rankingIndex::upsert)
+                .doOnSuccess(player -> log.info("New player created successfully with ID: {}", player.getId()));
+    }
+
+    private boolean determinePlayerWin(GameStatus status) {
+        return BlackjackRules.playerWins(status);
+    }
 
-        // Càlcul de guanys segons el tipus de victòria
-        return switch (status) {
-            case PLAYER_BLACKJACK -> 1.5; // Blackjack paga 3:2
-            case PLAYER_WIN, DEALER_BUST -> 1.0; // Victòria normal paga 1:1
-            default -> 0.0; // No hi ha guanys
-        };
+    // Les estadístiques sumen el guany per unitat d'aposta; les pèrdues compten com a 0
+    private double calculateWinnings(GameStatus status) {
+        return Math.max(0.0, BlackjackRules.winnings(status, 1.0));
     }
-}
\ No newline at end of file
+}
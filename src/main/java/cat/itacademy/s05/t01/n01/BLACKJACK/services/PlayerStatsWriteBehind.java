@@ -0,0 +1,179 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsWriteBehindProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.StatsDelta;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerStatsBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Acumula les estadístiques per jugador i les escriu en lots (per mida o per temps)
+@Slf4j
+@Component
+public class PlayerStatsWriteBehind {
+
+    private final PlayerStatsBatchRepository batchRepository;
+    private final StatsWriteBehindProperties properties;
+    private final RankingIndex rankingIndex;
+
+    // ConcurrentHashMap bloqueja per cubeta: jugadors diferents no es bloquegen entre ells
+    private final Map<Long, StatsDelta> pending = new ConcurrentHashMap<>();
+    private final AtomicReference<Mono<Void>> inFlight = new AtomicReference<>();
+
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+    private final Counter flushFailures;
+
+    private Disposable ticker;
+
+    public PlayerStatsWriteBehind(PlayerStatsBatchRepository batchRepository,
+                                  StatsWriteBehindProperties properties,
+                                  RankingIndex rankingIndex,
+                                  MeterRegistry meterRegistry) {
+        this.batchRepository = batchRepository;
+        this.properties = properties;
+        this.rankingIndex = rankingIndex;
+        this.batchSize = DistributionSummary.builder("blackjack.stats.write_behind.batch.size")
+                .description("Players written per batched UPDATE")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("blackjack.stats.write_behind.flush")
+                .description("Time to write one batch of player stats")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("blackjack.stats.write_behind.flush.failures")
+                .register(meterRegistry);
+        Gauge.builder("blackjack.stats.write_behind.pending", pending, Map::size)
+                .description("Players with stats waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        log.info("Player stats write-behind enabled: batch {} players, every {}",
+                properties.getMaxBatchSize(), properties.getFlushInterval());
+        ticker = Flux.interval(properties.getFlushInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> flushAll().onErrorResume(error -> Mono.empty()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker == null) {
+            return;
+        }
+        ticker.dispose();
+        try {
+            flushAll().block(properties.getShutdownTimeout());
+        } catch (RuntimeException e) {
+            log.error("Could not flush {} pending player stats on shutdown: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    public Mono<Void> record(Long playerId, StatsDelta delta) {
+        return Mono.defer(() -> {
+            if (pending.size() >= properties.getMaxPendingPlayers() && !pending.containsKey(playerId)) {
+                // Cua plena: la partida espera que s'escrigui un lot abans d'afegir-hi
+                return flush().then(record(playerId, delta));
+            }
+
+            pending.merge(playerId, delta, StatsDelta::plus);
+            if (pending.size() >= properties.getMaxBatchSize()) {
+                flush().subscribe(null, error -> { });
+            }
+            return Mono.<Void>empty();
+        });
+    }
+
+    // Escriu un lot; si ja n'hi ha un en curs, retorna aquell
+    public Mono<Void> flush() {
+        return Mono.defer(() -> {
+            while (true) {
+                Mono<Void> current = inFlight.get();
+                if (current != null) {
+                    return current;
+                }
+
+                Sinks.Empty<Void> done = Sinks.empty();
+                Mono<Void> flush = done.asMono();
+                if (inFlight.compareAndSet(null, flush)) {
+                    writeBatch().subscribe(null,
+                            error -> {
+                                inFlight.set(null);
+                                done.tryEmitError(error);
+                            },
+                            () -> {
+                                inFlight.set(null);
+                                done.tryEmitEmpty();
+                            });
+                    return flush;
+                }
+            }
+        });
+    }
+
+    public Mono<Void> flushAll() {
+        return flush().repeat(() -> !pending.isEmpty()).then();
+    }
+
+    private Mono<Void> writeBatch() {
+        Map<Long, StatsDelta> batch = drain(properties.getMaxBatchSize());
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+
+        long start = System.nanoTime();
+        return batchRepository.applyDeltas(batch)
+                .doOnNext(rows -> {
+                    batchSize.record(batch.size());
+                    flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (rows < batch.size()) {
+                        log.warn("Stats batch of {} players updated only {} rows", batch.size(), rows);
+                    }
+                    batch.forEach(rankingIndex::applyDelta);
+                })
+                .doOnError(error -> {
+                    // Es tornen a la cua per no perdre-les; el següent flush ho reintenta
+                    flushFailures.increment();
+                    batch.forEach((playerId, delta) -> pending.merge(playerId, delta, StatsDelta::plus));
+                    log.error("Error writing stats batch of {} players: {}", batch.size(), error.getMessage());
+                })
+                .then();
+    }
+
+    private Map<Long, StatsDelta> drain(int max) {
+        Map<Long, StatsDelta> batch = new HashMap<>();
+        Iterator<Long> playerIds = pending.keySet().iterator();
+        while (batch.size() < max && playerIds.hasNext()) {
+            Long playerId = playerIds.next();
+            StatsDelta delta = pending.remove(playerId);
+            if (delta != null) {
+                batch.put(playerId, delta);
+            }
+        }
+        return batch;
+    }
+}
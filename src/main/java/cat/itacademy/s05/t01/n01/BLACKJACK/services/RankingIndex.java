@@ -0,0 +1,256 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankChange;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankedPlayer;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.StatsDelta;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Rànquing en memòria: es carrega de MySQL en arrencar i s'actualitza amb cada partida liquidada
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RankingIndex {
+
+    private final PlayerRepository playerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private RankingTree tree = new RankingTree();
+    private Map<Long, Player> playersById = new HashMap<>();
+
+    // Jugadors canviats mentre es carrega: es rellegeixen de MySQL abans de donar l'índex per bo
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private boolean loading;
+    private volatile boolean ready;
+
+    // Canvis de posició per als clients en directe. S'emeten dins del write lock, per tant en sèrie
+    private static final int CHANGES_BUFFER = 1024;
+    private final Sinks.Many<RankChange> changes = Sinks.many().multicast().directBestEffort();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload().subscribe(null, error -> log.error("Could not load ranking index: {}", error.getMessage()));
+    }
+
+    public Mono<Void> reload() {
+        return Mono.defer(() -> {
+                    withWriteLock(() -> loading = true);
+                    return playerRepository.findAllOrderByRanking().collectList();
+                })
+                .doOnNext(this::replaceAll)
+                .then(refreshDirty())
+                .doOnSuccess(ignored -> log.info("Ranking index loaded with {} players", size()))
+                .doOnError(error -> withWriteLock(() -> loading = false));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Player> top(int limit) {
+        lock.readLock().lock();
+        try {
+            return tree.range(0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<RankedPlayer> rankOf(Long playerId) {
+        lock.readLock().lock();
+        try {
+            Player player = playersById.get(playerId);
+            return player == null
+                    ? Optional.empty()
+                    : Optional.of(new RankedPlayer(tree.rankOf(player) + 1, player));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Pàgina que comença just després del jugador indicat
+    public Optional<List<Player>> pageAfter(Long playerId, int limit) {
+        lock.readLock().lock();
+        try {
+            Player player = playersById.get(playerId);
+            return player == null
+                    ? Optional.empty()
+                    : Optional.of(tree.range(tree.rankOf(player) + 1, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Fins a `before` jugadors per davant, el jugador i fins a `after` per darrere
+    public Optional<List<Player>> around(Long playerId, int before, int after) {
+        lock.readLock().lock();
+        try {
+            Player player = playersById.get(playerId);
+            if (player == null) {
+                return Optional.empty();
+            }
+            int position = tree.rankOf(player);
+            int from = Math.max(0, position - before);
+            return Optional.of(tree.range(from, (int) Math.min((long) position - from + 1 + after, tree.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Un client lent perd els canvis més antics en lloc de frenar la liquidació de partides
+    public Flux<RankChange> changes() {
+        return changes.asFlux()
+                .onBackpressureBuffer(CHANGES_BUFFER, dropped -> log.debug("Dropped rank change for a slow subscriber"),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .publishOn(Schedulers.parallel());
+    }
+
+    public void upsert(Player player) {
+        Player snapshot = player.toBuilder().build();
+        withWriteLock(() -> put(snapshot));
+    }
+
+    public void remove(Long playerId) {
+        withWriteLock(() -> {
+            Player previous = playersById.remove(playerId);
+            if (previous != null) {
+                int previousRank = tree.rankOf(previous) + 1;
+                tree.remove(previous);
+                publish(previousRank, null, previous);
+            }
+        });
+    }
+
+    // Mateix càlcul que l'UPDATE de PlayerRepository.incrementStats
+    public void applyDelta(Long playerId, StatsDelta delta) {
+        boolean missing;
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                dirty.add(playerId);
+                return;
+            }
+            Player current = playersById.get(playerId);
+            missing = current == null;
+            if (!missing) {
+                put(withDelta(current, delta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Jugador creat per una altra instància: es llegeix sencer
+        if (missing) {
+            playerRepository.findById(playerId).subscribe(this::upsert,
+                    error -> log.error("Could not refresh player {} in ranking: {}", playerId, error.getMessage()));
+        }
+    }
+
+    private void put(Player player) {
+        Player previous = playersById.put(player.getId(), player);
+        Integer previousRank = null;
+        if (previous != null) {
+            previousRank = tree.rankOf(previous) + 1;
+            tree.remove(previous);
+        }
+        tree.insert(player);
+        publish(previousRank, tree.rankOf(player) + 1, player);
+    }
+
+    private void publish(Integer previousRank, Integer rank, Player player) {
+        if (ready && changes.currentSubscriberCount() > 0) {
+            changes.tryEmitNext(new RankChange(previousRank, rank, player));
+        }
+    }
+
+    private void replaceAll(List<Player> players) {
+        RankingTree newTree = new RankingTree();
+        Map<Long, Player> newPlayersById = new HashMap<>(players.size() * 2);
+        for (Player player : players) {
+            newPlayersById.put(player.getId(), player);
+            newTree.insert(player);
+        }
+        withWriteLock(() -> {
+            tree = newTree;
+            playersById = newPlayersById;
+        });
+    }
+
+    private Mono<Void> refreshDirty() {
+        return Mono.defer(() -> {
+            List<Long> playerIds = new ArrayList<>(dirty);
+            dirty.removeAll(playerIds);
+
+            if (playerIds.isEmpty()) {
+                lock.writeLock().lock();
+                try {
+                    if (dirty.isEmpty()) {
+                        loading = false;
+                        ready = true;
+                        return Mono.empty();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                return refreshDirty();
+            }
+
+            return playerRepository.findAllById(playerIds)
+                    .doOnNext(this::upsert)
+                    .then(refreshDirty());
+        });
+    }
+
+    private static Player withDelta(Player player, StatsDelta delta) {
+        int gamesPlayed = player.getGamesPlayed() + delta.gamesPlayed();
+        int gamesWon = player.getGamesWon() + delta.gamesWon();
+        double winRate = gamesPlayed > 0 ? (double) gamesWon / gamesPlayed * 100.0 : 0.0;
+
+        return player.toBuilder()
+                .gamesPlayed(gamesPlayed)
+                .gamesWon(gamesWon)
+                .totalWinnings(Math.round((player.getTotalWinnings() + delta.winnings()) * 100.0) / 100.0)
+                .winRate(Math.round(winRate * 100.0) / 100.0)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Treap amb mida de subarbre: inserir, esborrar, posició i k-èssim en O(log n). No és thread-safe.
+final class RankingTree {
+
+    // Mateix ordre que la consulta de rànquing: win_rate DESC, total_winnings DESC, id ASC
+    static final Comparator<Player> RANKING_ORDER = Comparator
+            .comparingDouble(Player::getWinRate).reversed()
+            .thenComparing(Comparator.comparingDouble(Player::getTotalWinnings).reversed())
+            .thenComparing(Player::getId);
+
+    private static final class Node {
+        private final Player player;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Player player, int priority) {
+            this.player = player;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(Player player) {
+        root = insert(root, new Node(player, random.nextInt()));
+    }
+
+    void remove(Player player) {
+        root = remove(root, player);
+    }
+
+    // Jugadors que van per davant (posició 0 = primer)
+    int rankOf(Player player) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = RANKING_ORDER.compare(player, node.player);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    List<Player> range(int from, int count) {
+        // En long perquè from + count no desbordi amb límits grans
+        int to = (int) Math.min((long) from + count, size());
+        List<Player> players = new ArrayList<>(Math.max(0, to - from));
+        collect(root, 0, from, to, players);
+        return players;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (item.priority > node.priority) {
+            Node[] parts = split(node, item.player);
+            item.left = parts[0];
+            item.right = parts[1];
+            update(item);
+            return item;
+        }
+        if (RANKING_ORDER.compare(item.player, node.player) < 0) {
+            node.left = insert(node.left, item);
+        } else {
+            node.right = insert(node.right, item);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node remove(Node node, Player player) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = RANKING_ORDER.compare(player, node.player);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, player);
+        } else {
+            node.right = remove(node.right, player);
+        }
+        update(node);
+        return node;
+    }
+
+    // [0]: nodes abans de key, [1]: la resta
+    private static Node[] split(Node node, Player key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (RANKING_ORDER.compare(node.player, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        }
+        second.left = merge(first, second.left);
+        update(second);
+        return second;
+    }
+
+    // Recorregut en ordre que salta els subarbres fora de [from, to)
+    private static void collect(Node node, int offset, int from, int to, List<Player> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int index = offset + size(node.left);
+        collect(node.left, offset, from, to, out);
+        if (index >= from && index < to) {
+            out.add(node.player);
+        }
+        collect(node.right, index + 1, from, to, out);
+    }
+}
@@ -0,0 +1,114 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsOutboxProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.StatsOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Passa les partides acabades de l'outbox de Mongo a les estadístiques de MySQL, per lots.
+// Primer MySQL i després es buida l'outbox: si l'aplicació cau entremig, el lot es torna a enviar
+// i settled_games evita comptar-lo dues vegades.
+@Slf4j
+@Component
+public class StatsOutboxRelay {
+
+    private final StatsOutboxRepository outboxRepository;
+    private final PlayerService playerService;
+    private final StatsOutboxProperties properties;
+
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer lag;
+
+    private Disposable ticker;
+
+    public StatsOutboxRelay(StatsOutboxRepository outboxRepository,
+                            PlayerService playerService,
+                            StatsOutboxProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.playerService = playerService;
+        this.properties = properties;
+        this.relayed = Counter.builder("blackjack.stats.outbox.relayed")
+                .description("Settled games moved from the Mongo outbox to MySQL")
+                .register(meterRegistry);
+        this.failures = Counter.builder("blackjack.stats.outbox.failures")
+                .register(meterRegistry);
+        this.lag = Timer.builder("blackjack.stats.outbox.lag")
+                .description("Time from a game settling to its stats reaching MySQL")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        log.info("Stats outbox enabled: batch {} games, every {}", properties.getBatchSize(), properties.getPollInterval());
+        ticker = Flux.interval(properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> relayAll().onErrorResume(error -> Mono.empty()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker == null) {
+            return;
+        }
+        ticker.dispose();
+        try {
+            relayAll().block(properties.getShutdownTimeout());
+        } catch (RuntimeException e) {
+            log.error("Could not relay pending stats on shutdown: {}", e.getMessage());
+        }
+    }
+
+    // Lots seguits mentre surtin plens; retorna les partides enviades
+    public Mono<Integer> relayAll() {
+        return relayBatch()
+                .expand(count -> count == properties.getBatchSize() ? relayBatch() : Mono.empty())
+                .reduce(0, Integer::sum);
+    }
+
+    public Mono<Integer> relayBatch() {
+        return outboxRepository.findPending(properties.getBatchSize())
+                .collectList()
+                .flatMap(games -> games.isEmpty() ? Mono.just(0) : relay(games))
+                .doOnError(error -> {
+                    failures.increment();
+                    log.error("Error relaying settled games to MySQL: {}", error.getMessage());
+                });
+    }
+
+    private Mono<Integer> relay(List<SettledGame> games) {
+        return playerService.applySettledGames(games)
+                .flatMap(applied -> outboxRepository.clear(games.stream().map(SettledGame::getGameId).toList())
+                        .doOnNext(cleared -> {
+                            relayed.increment(games.size());
+                            LocalDateTime now = LocalDateTime.now();
+                            games.forEach(game -> lag.record(Duration.between(game.getSettledAt(), now)));
+                            if (applied < games.size()) {
+                                log.debug("{} of {} settled games were already counted", games.size() - applied, games.size());
+                            }
+                        }))
+                .thenReturn(games.size());
+    }
+}
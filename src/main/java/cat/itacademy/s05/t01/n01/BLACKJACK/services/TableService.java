@@ -0,0 +1,13 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateTableRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import reactor.core.publisher.Mono;
+
+public interface TableService {
+    Mono<GameTable> createTable(CreateTableRequest request);
+    Mono<GameTable> getTable(String tableId);
+    Mono<GameTable> playSeat(String tableId, int seat, PlayRequest play);
+    Mono<GameTable> nextRound(String tableId);
+}
@@ -0,0 +1,276 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.TableProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateGameRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateTableRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.engine.BlackjackRules;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameConflictException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameNotFoundException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.InvalidGameException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.TableStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameTableRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Taules de diversos seients: la casa juga una sola vegada per mà i tota la mà es desa amb una escriptura
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableServiceImplement implements TableService {
+
+    private final GameTableRepository tableRepository;
+    private final PlayerService playerService;
+    private final DeckServiceImplement deckService;
+    private final TableProperties properties;
+    private final BlackjackMetrics metrics;
+    private final GameEvents events;
+
+    @Override
+    public Mono<GameTable> createTable(CreateTableRequest request) {
+        List<CreateGameRequest> seats = request.getSeats();
+        if (seats.size() > properties.getMaxSeats()) {
+            return Mono.error(new InvalidGameException("A table has at most " + properties.getMaxSeats() + " seats"));
+        }
+        log.debug("Creating table with {} seats", seats.size());
+
+        Mono<GameTable> table = playerService.findOrCreatePlayers(seats.stream().map(CreateGameRequest::getPlayerName).toList())
+                .flatMap(players -> tableRepository.save(newTable(seats, players)))
+                .flatMap(this::settleStats);
+        return metrics.observe(table, "blackjack.table.create");
+    }
+
+    @Override
+    public Mono<GameTable> getTable(String tableId) {
+        return tableRepository.findById(tableId)
+                .switchIfEmpty(Mono.error(new GameNotFoundException("Table not found with id: " + tableId)));
+    }
+
+    @Override
+    public Mono<GameTable> playSeat(String tableId, int seat, PlayRequest playRequest) {
+        Mono<GameTable> play = getTable(tableId)
+                .flatMap(table -> {
+                    GameEvents.TableMark before = events.mark(table);
+                    return applyAction(table, seat, playRequest.getAction())
+                            .flatMap(played -> persistRound(played, before));
+                });
+        return metrics.observe(play, "blackjack.table.play", "action", playRequest.getAction().name().toLowerCase());
+    }
+
+    @Override
+    public Mono<GameTable> nextRound(String tableId) {
+        Mono<GameTable> round = getTable(tableId)
+                .flatMap(table -> {
+                    if (table.getStatus() != TableStatus.SETTLED) {
+                        return Mono.error(new InvalidGameException("The current round is still in progress"));
+                    }
+                    GameEvents.TableMark before = events.mark(table);
+                    table.setRound(table.getRound() + 1);
+                    dealRound(table);
+                    return persistRound(table, before);
+                });
+        return metrics.observe(round, "blackjack.table.round");
+    }
+
+    private GameTable newTable(List<CreateGameRequest> requests, Map<String, Player> players) {
+        List<Seat> seats = new ArrayList<>();
+        for (CreateGameRequest request : requests) {
+            Player player = players.get(request.getPlayerName());
+            seats.add(Seat.builder()
+                    .playerId(player.getId().toString())
+                    .playerName(player.getName())
+                    .bet(request.getBet())
+                    .build());
+        }
+
+        // Prou baralles perquè una mà sencera de tots els seients no buidi mai el shoe
+        int decks = decksFor(seats.size(), properties.getDecks());
+        GameTable table = GameTable.builder()
+                .id(UUID.randomUUID().toString())
+                .seats(seats)
+                .round(1)
+                .shoe(deckService.createShoe(decks))
+                .createdAt(LocalDateTime.now())
+                .build();
+        dealRound(table);
+        return table;
+    }
+
+    // Dues voltes: cada seient i després la casa, com a la taula real
+    private void dealRound(GameTable table) {
+        Shoe shoe = table.getShoe();
+        int seats = table.getSeats().size();
+        int decks = shoe.getCards().length / Card.DECK_SIZE;
+        if (decksFor(seats, decks) > decks) {
+            // Shoe massa petit per a una mà sencera (taules creades abans de calcular bé el límit)
+            shoe = deckService.createShoe(decksFor(seats, decks));
+            table.setShoe(shoe);
+        } else if (shoe.remaining() < cardsPerRound(seats, decks)) {
+            shoe.shuffle(ThreadLocalRandom.current());
+        }
+
+        for (Seat seat : table.getSeats()) {
+            seat.setPlayerCards(new ArrayList<>());
+            seat.setPlayerHand(new HandValue());
+            seat.setStatus(GameStatus.IN_PROGRESS);
+            seat.setStanding(false);
+            seat.setWinnings(0.0);
+        }
+        table.setDealerCards(new ArrayList<>());
+        table.setDealerHand(new HandValue());
+        table.setStatus(TableStatus.IN_PROGRESS);
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (Seat seat : table.getSeats()) {
+                seat.getPlayerCards().add(BlackjackRules.deal(shoe, seat.getPlayerHand()));
+            }
+            table.getDealerCards().add(BlackjackRules.deal(shoe, table.getDealerHand()));
+        }
+
+        for (Seat seat : table.getSeats()) {
+            seat.setPlayerScore(seat.getPlayerHand().getScore());
+            // Comprovar Blackjack immediat (paga 1.5x)
+            GameStatus status = BlackjackRules.afterDeal(seat.getPlayerHand());
+            if (status != GameStatus.IN_PROGRESS) {
+                finish(seat, status);
+            }
+        }
+        table.setDealerScore(table.getDealerHand().getScore());
+        table.setUpdatedAt(LocalDateTime.now());
+
+        if (allSeatsDone(table)) {
+            playDealer(table);
+        }
+    }
+
+    private Mono<GameTable> applyAction(GameTable table, int seatIndex, PlayRequest.PlayAction action) {
+        if (table.getStatus() != TableStatus.IN_PROGRESS) {
+            return Mono.error(new InvalidGameException("Round is already settled"));
+        }
+        if (seatIndex < 0 || seatIndex >= table.getSeats().size()) {
+            return Mono.error(new InvalidGameException("Seat " + seatIndex + " does not exist at this table"));
+        }
+        Seat seat = table.getSeats().get(seatIndex);
+        if (seat.isDone()) {
+            return Mono.error(new InvalidGameException("Seat " + seatIndex + " has already finished this round"));
+        }
+
+        switch (action) {
+            case HIT:
+                seat.getPlayerCards().add(BlackjackRules.deal(table.getShoe(), seat.getPlayerHand()));
+                seat.setPlayerScore(seat.getPlayerHand().getScore());
+                GameStatus status = BlackjackRules.afterHit(seat.getPlayerHand());
+                if (status != GameStatus.IN_PROGRESS) {
+                    finish(seat, status);  // Perd l'aposta
+                }
+                break;
+            case STAND:
+                seat.setStanding(true);
+                break;
+            default:
+                return Mono.error(new IllegalArgumentException("Invalid action"));
+        }
+        table.setUpdatedAt(LocalDateTime.now());
+
+        // L'últim seient que acaba fa jugar la casa: una sola vegada per a tota la taula
+        if (allSeatsDone(table)) {
+            playDealer(table);
+        }
+        return Mono.just(table);
+    }
+
+    private void playDealer(GameTable table) {
+        HandValue dealerHand = table.getDealerHand();
+        boolean anyStanding = table.getSeats().stream().anyMatch(seat -> seat.getStatus() == GameStatus.IN_PROGRESS);
+
+        // Si tots els seients ja estan liquidats (passats o blackjack), la casa no demana carta
+        if (anyStanding) {
+            while (BlackjackRules.dealerMustHit(dealerHand)) {
+                table.getDealerCards().add(BlackjackRules.deal(table.getShoe(), dealerHand));
+            }
+            table.setDealerScore(dealerHand.getScore());
+        }
+
+        for (Seat seat : table.getSeats()) {
+            if (seat.getStatus() == GameStatus.IN_PROGRESS) {
+                finish(seat, BlackjackRules.settle(seat.getPlayerHand(), dealerHand));
+            }
+        }
+        table.setStatus(TableStatus.SETTLED);
+    }
+
+    private Mono<GameTable> persistRound(GameTable table, GameEvents.TableMark before) {
+        String tableId = table.getId();
+        return tableRepository.updateIfUnchanged(table)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new GameConflictException(
+                        "Table was modified by another request: " + tableId))))
+                .doOnNext(saved -> events.publish(before, saved))
+                .flatMap(this::settleStats);
+    }
+
+    // Mà acabada: resultats i estadístiques de tots els seients en un sol lot
+    private Mono<GameTable> settleStats(GameTable table) {
+        if (table.getStatus() != TableStatus.SETTLED) {
+            return Mono.just(table);
+        }
+
+        table.getSeats().forEach(seat -> metrics.recordOutcome(seat.getStatus()));
+        return playerService.updatePlayersStats(table.getSeats())
+                .then(Mono.just(table));
+    }
+
+    private boolean allSeatsDone(GameTable table) {
+        return table.getSeats().stream().allMatch(Seat::isDone);
+    }
+
+    private void finish(Seat seat, GameStatus status) {
+        seat.setStatus(status);
+        seat.setWinnings(BlackjackRules.winnings(status, seat.getBet()));
+    }
+
+    // Menys baralles de les configurades mai; més si una mà sencera no hi cabria
+    static int decksFor(int seats, int minDecks) {
+        int decks = minDecks;
+        while (decks * Card.DECK_SIZE < cardsPerRound(seats, decks)) {
+            decks++;
+        }
+        return decks;
+    }
+
+    // Cota per a tots els seients i la casa, com si cada mà pogués agafar totes les cartes baixes
+    static int cardsPerRound(int seats, int decks) {
+        return (seats + 1) * maxCardsPerHand(decks);
+    }
+
+    // Mà més llarga possible: cartes de menys valor (l'as val 1) fins a 21, i encara es pot demanar
+    // carta amb 21. Amb una baralla, A A A A 2 2 2 2 3 3 3 i una més (12); amb sis, 21 asos i una més (22)
+    static int maxCardsPerHand(int decks) {
+        int cards = 0;
+        int total = 0;
+        for (int value = 1; ; value++) {
+            for (int copy = 0; copy < Card.Suit.values().length * decks; copy++) {
+                if (total + value > 21) {
+                    return cards + 1;
+                }
+                total += value;
+                cards++;
+            }
+        }
+    }
+}
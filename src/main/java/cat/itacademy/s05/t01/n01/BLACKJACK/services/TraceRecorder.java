@@ -0,0 +1,150 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.TracingProperties;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Exportador de spans en memòria: agrupa els spans per trace i, quan arriba l'arrel (que acaba l'última),
+// guarda la trace sencera. Si la petició ha estat lenta, en deixa el desglossament al log.
+// Spring Boot el registra sol perquè és un bean SpanExporter.
+@Slf4j
+@Component
+public class TraceRecorder implements SpanExporter {
+
+    private static final AttributeKey<String> R2DBC_QUERY = AttributeKey.stringKey("r2dbc.query[0]");
+    private static final int MAX_STATEMENT_LENGTH = 60;
+
+    private final TracingProperties properties;
+
+    // Només el fil de l'exportador en lot hi escriu; els lectors (tests, diagnosi) passen pel mateix monitor
+    private final Map<String, List<RecordedSpan>> open;
+    private final Deque<RecordedTrace> recent = new ArrayDeque<>();
+
+    public record RecordedSpan(String spanId, String parentSpanId, String name, long startNanos, long durationNanos) {
+
+        // Els spans d'R2DBC es diuen tots "query": s'hi afegeix l'inici de la sentència per distingir-los
+        static RecordedSpan of(SpanData span) {
+            String name = span.getName();
+            String statement = span.getAttributes().get(R2DBC_QUERY);
+            if (statement != null) {
+                name = name + " " + statement.substring(0, Math.min(statement.length(), MAX_STATEMENT_LENGTH));
+            }
+            return new RecordedSpan(span.getSpanId(), span.getParentSpanId(), name,
+                    span.getStartEpochNanos(), span.getEndEpochNanos() - span.getStartEpochNanos());
+        }
+    }
+
+    public record RecordedTrace(String traceId, String name, Duration duration, List<RecordedSpan> spans) {
+    }
+
+    public TraceRecorder(TracingProperties properties) {
+        this.properties = properties;
+        this.open = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<RecordedSpan>> eldest) {
+                return size() > properties.getMaxOpenTraces();
+            }
+        };
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            RecordedSpan recorded = RecordedSpan.of(span);
+            if (isRoot(span.getParentSpanContext())) {
+                complete(span.getTraceId(), recorded);
+            } else {
+                open.computeIfAbsent(span.getTraceId(), traceId -> new ArrayList<>()).add(recorded);
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        open.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    // La més recent primer
+    public synchronized List<RecordedTrace> recent() {
+        return List.copyOf(recent);
+    }
+
+    public String breakdown(RecordedTrace trace) {
+        Map<String, List<RecordedSpan>> children = new HashMap<>();
+        for (RecordedSpan span : trace.spans()) {
+            children.computeIfAbsent(span.parentSpanId(), parent -> new ArrayList<>()).add(span);
+        }
+
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%s took %.1f ms (trace %s)",
+                trace.name(), millis(trace.duration().toNanos()), trace.traceId()));
+        Set<String> spanIds = trace.spans().stream().map(RecordedSpan::spanId).collect(Collectors.toSet());
+        trace.spans().stream()
+                .filter(span -> !spanIds.contains(span.parentSpanId()))
+                .findFirst()
+                .ifPresent(root -> appendSpan(out, root, root.startNanos(), 0, children));
+        return out.toString();
+    }
+
+    private void complete(String traceId, RecordedSpan root) {
+        List<RecordedSpan> spans = open.remove(traceId);
+        if (spans == null) {
+            spans = new ArrayList<>();
+        }
+        spans.add(root);
+        spans.sort(Comparator.comparingLong(RecordedSpan::startNanos));
+        RecordedTrace trace = new RecordedTrace(traceId, root.name(), Duration.ofNanos(root.durationNanos()),
+                List.copyOf(spans));
+
+        recent.addFirst(trace);
+        while (recent.size() > properties.getMaxTraces()) {
+            recent.removeLast();
+        }
+        if (trace.duration().compareTo(properties.getSlowRequestThreshold()) >= 0) {
+            log.warn("Slow request: {}", breakdown(trace));
+        }
+    }
+
+    private void appendSpan(StringBuilder out, RecordedSpan span, long traceStart, int depth,
+                            Map<String, List<RecordedSpan>> children) {
+        out.append(String.format(Locale.ROOT, "%n  %+9.1f ms %9.1f ms  %s%s",
+                millis(span.startNanos() - traceStart), millis(span.durationNanos()), "  ".repeat(depth), span.name()));
+        for (RecordedSpan child : children.getOrDefault(span.spanId(), List.of())) {
+            appendSpan(out, child, traceStart, depth + 1, children);
+        }
+    }
+
+    // L'arrel és el primer span del procés: sense pare o amb un pare que ve d'un altre servei
+    private static boolean isRoot(SpanContext parent) {
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
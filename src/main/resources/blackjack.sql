@@ -6,5 +6,15 @@ CREATE TABLE IF NOT EXISTS players (
     total_winnings DECIMAL(10,2) DEFAULT 0.00,
     win_rate DECIMAL(5,2) DEFAULT 0.00,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
-);
\ No newline at end of file
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_players_ranking (win_rate DESC, total_winnings DESC, id)
+);
+
+-- Partides ja sumades a players per l'outbox: tornar a enviar-ne una no la compta dues vegades
+CREATE TABLE IF NOT EXISTS settled_games (
+    game_id VARCHAR(36) PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    settled_at TIMESTAMP NOT NULL,
+    recorded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
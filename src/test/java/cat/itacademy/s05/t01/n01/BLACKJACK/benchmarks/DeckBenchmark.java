@@ -0,0 +1,70 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.benchmarks;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.DeckServiceImplement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara el drawCard() antic (baralla nova a cada carta) amb el shoe persistent,
+// i el cost de crear una baralla o un shoe nou per partida
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    private DeckServiceImplement deckService;
+    private Shoe shoe;
+
+    @Setup
+    public void setUp() {
+        deckService = new DeckServiceImplement(6);
+        shoe = deckService.createShoe();
+    }
+
+    @Benchmark
+    public List<Card> createShuffledDeck() {
+        return deckService.createShuffledDeck();
+    }
+
+    @Benchmark
+    public Shoe createShoe() {
+        return deckService.createShoe();
+    }
+
+    @Benchmark
+    public Card legacyDrawCard() {
+        return deckService.drawCard();
+    }
+
+    @Benchmark
+    public Card shoeDrawCard() {
+        if (shoe.remaining() == 0) {
+            shoe.setPosition(0);
+        }
+        return shoe.draw();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DeckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
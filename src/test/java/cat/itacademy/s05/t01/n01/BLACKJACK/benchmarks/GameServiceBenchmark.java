@@ -0,0 +1,200 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.benchmarks;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.GameCacheProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsOutboxProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.engine.BlackjackRules;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.DocumentGameStore;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameStore;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.BlackjackMetrics;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.DeckServiceImplement;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameCache;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameEvents;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameServiceImplement;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.PlayerService;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.StatsOutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Jugades de GameServiceImplement sense Mongo ni MySQL: els repositoris són stubs que tornen la partida tal qual,
+// de manera que el temps i les assignacions (-prof gc) són només del servei i de les regles
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    private static final PlayRequest STAND = playRequest(PlayRequest.PlayAction.STAND);
+    private static final PlayRequest HIT = playRequest(PlayRequest.PlayAction.HIT);
+
+    private GameServiceImplement gameService;
+    private Game current;
+
+    private Shoe dealerShoe;
+    private HandValue dealerHand;
+    private List<Card> dealerCards;
+
+    @Setup
+    public void setUp() {
+        GameCacheProperties cacheProperties = new GameCacheProperties();
+        cacheProperties.setEnabled(false);
+
+        GameRepository gameRepository = stub(GameRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Mono.just(current);
+            case "updateIfInProgress" -> Mono.just((Game) args[0]);
+            default -> throw new UnsupportedOperationException(method);
+        });
+        GameStore gameStore = new DocumentGameStore(gameRepository);
+        PlayerService playerService = stub(PlayerService.class, (method, args) -> switch (method) {
+            case "updatePlayerStats" -> Mono.empty();
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        gameService = new GameServiceImplement(gameStore, playerService, new DeckServiceImplement(1),
+                new GameCache(gameStore, cacheProperties, new SimpleMeterRegistry()),
+                new BlackjackMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP),
+                new GameEvents(new SimpleMeterRegistry()),
+                new StatsOutboxRelay(null, playerService, new StatsOutboxProperties(), new SimpleMeterRegistry()));
+
+        dealerShoe = Shoe.shuffled(6, new SplittableRandom(42));
+        dealerHand = new HandValue();
+        dealerCards = new ArrayList<>();
+    }
+
+    // Una partida nova per crida (les jugades la modifiquen); es reparteix fora de la mesura
+    @State(Scope.Thread)
+    public static class FreshGame {
+        private final SplittableRandom random = new SplittableRandom(7);
+        Game game;
+
+        @Setup(Level.Invocation)
+        public void deal() {
+            game = dealtGame(random);
+        }
+    }
+
+    @Benchmark
+    public Game stand(FreshGame fresh) {
+        current = fresh.game;
+        return gameService.playGame(current.getId(), STAND).block();
+    }
+
+    @Benchmark
+    public Game hit(FreshGame fresh) {
+        current = fresh.game;
+        return gameService.playGame(current.getId(), HIT).block();
+    }
+
+    // Només el bucle de la casa de handleStand, sense Reactor: recorre un shoe de 6 baralles
+    @Benchmark
+    public int dealerPlay() {
+        if (dealerShoe.remaining() < 20) {
+            dealerShoe.setPosition(0);
+        }
+        dealerHand.reset();
+        dealerCards.clear();
+        dealerCards.add(BlackjackRules.deal(dealerShoe, dealerHand));
+        dealerCards.add(BlackjackRules.deal(dealerShoe, dealerHand));
+        while (BlackjackRules.dealerMustHit(dealerHand)) {
+            dealerCards.add(BlackjackRules.deal(dealerShoe, dealerHand));
+        }
+        return dealerHand.getScore();
+    }
+
+    static Game dealtGame(SplittableRandom random) {
+        Shoe shoe = Shoe.shuffled(1, random);
+        HandValue playerHand = new HandValue();
+        HandValue dealerHand = new HandValue();
+        List<Card> playerCards = new ArrayList<>();
+        List<Card> dealerCards = new ArrayList<>();
+        // Sense blackjack inicial: la partida ha de quedar IN_PROGRESS
+        do {
+            shoe.shuffle(random);
+            playerHand.reset();
+            dealerHand.reset();
+            playerCards.clear();
+            dealerCards.clear();
+            playerCards.add(BlackjackRules.deal(shoe, playerHand));
+            dealerCards.add(BlackjackRules.deal(shoe, dealerHand));
+            playerCards.add(BlackjackRules.deal(shoe, playerHand));
+            dealerCards.add(BlackjackRules.deal(shoe, dealerHand));
+        } while (BlackjackRules.afterDeal(playerHand) != GameStatus.IN_PROGRESS);
+
+        return Game.builder()
+                .id("benchmark-game")
+                .playerId("1")
+                .playerName("Benchmark")
+                .playerCards(playerCards)
+                .dealerCards(dealerCards)
+                .playerScore(playerHand.getScore())
+                .dealerScore(dealerHand.getScore())
+                .playerHand(playerHand)
+                .dealerHand(dealerHand)
+                .shoe(shoe)
+                .status(GameStatus.IN_PROGRESS)
+                .bet(10.0)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .version(0L)
+                .build();
+    }
+
+    private static PlayRequest playRequest(PlayRequest.PlayAction action) {
+        PlayRequest request = new PlayRequest();
+        request.setAction(action);
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface StubHandler {
+        Object invoke(String method, Object[] args);
+    }
+
+    // Proxy dinàmic en lloc de Mockito: el cost d'un mock distorsionaria les mesures
+    private static <T> T stub(Class<T> type, StubHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + "Stub";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.invoke(method.getName(), args);
+                }));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GameServiceBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.benchmarks;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Puntuació després de cada carta: reescaneig complet (calculateScore antic) vs HandValue incremental
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandValueBenchmark {
+
+    @Param({"3", "6", "11"})
+    private int handSize;
+
+    private List<Card> cards;
+    private List<Card> hand;
+    private HandValue handValue;
+
+    @Setup
+    public void setUp() {
+        cards = new ArrayList<>();
+        Card.Rank[] ranks = {Card.Rank.ACE, Card.Rank.TWO, Card.Rank.THREE, Card.Rank.ACE, Card.Rank.FOUR,
+                Card.Rank.TWO, Card.Rank.ACE, Card.Rank.THREE, Card.Rank.TWO, Card.Rank.ACE, Card.Rank.TWO};
+        for (int i = 0; i < handSize; i++) {
+            cards.add(Card.of(Card.Suit.values()[i % 4], ranks[i]));
+        }
+        hand = new ArrayList<>(handSize);
+        handValue = new HandValue();
+    }
+
+    @Benchmark
+    public void fullRescan(Blackhole blackhole) {
+        hand.clear();
+        for (Card card : cards) {
+            hand.add(card);
+            blackhole.consume(calculateScore(hand));
+        }
+    }
+
+    @Benchmark
+    public void incremental(Blackhole blackhole) {
+        handValue.reset();
+        for (Card card : cards) {
+            handValue.add(card);
+            blackhole.consume(handValue.getScore());
+        }
+    }
+
+    private static int calculateScore(List<Card> cards) {
+        int score = 0;
+        int aces = 0;
+
+        for (Card card : cards) {
+            if (card.getRank() == Card.Rank.ACE) {
+                aces++;
+            }
+            score += card.getValue();
+        }
+
+        while (score > 21 && aces > 0) {
+            score -= 10;
+            aces--;
+        }
+
+        return score;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HandValueBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,139 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.benchmarks;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Serialització de les respostes més habituals amb la mateixa configuració de Jackson que l'aplicació
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+    private static final int RANKING_PAGE_SIZE = 20;
+
+    private ObjectWriter gameWriter;
+    private ObjectWriter playerWriter;
+    private ObjectWriter rankingWriter;
+    private Game game;
+    private Player player;
+    private List<Player> rankingPage;
+
+    @Setup
+    public void setUp() {
+        // Com JacksonAutoConfiguration: dates ISO-8601 en lloc de timestamps
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        gameWriter = objectMapper.writerFor(Game.class);
+        playerWriter = objectMapper.writerFor(Player.class);
+        rankingWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Player.class));
+
+        game = finishedGame();
+        player = player(1L);
+        rankingPage = new ArrayList<>(RANKING_PAGE_SIZE);
+        for (long id = 1; id <= RANKING_PAGE_SIZE; id++) {
+            rankingPage.add(player(id));
+        }
+    }
+
+    @Benchmark
+    public byte[] game() throws JsonProcessingException {
+        return gameWriter.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public byte[] player() throws JsonProcessingException {
+        return playerWriter.writeValueAsBytes(player);
+    }
+
+    @Benchmark
+    public byte[] rankingPage() throws JsonProcessingException {
+        return rankingWriter.writeValueAsBytes(rankingPage);
+    }
+
+    // Partida amb el shoe i les mans plenes: han de quedar fora del JSON (@JsonIgnore)
+    private Game finishedGame() {
+        Shoe shoe = Shoe.shuffled(6, new SplittableRandom(42));
+        HandValue playerHand = new HandValue();
+        HandValue dealerHand = new HandValue();
+        List<Card> playerCards = new ArrayList<>();
+        List<Card> dealerCards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            playerCards.add(shoe.draw());
+            dealerCards.add(shoe.draw());
+        }
+        playerCards.forEach(playerHand::add);
+        dealerCards.forEach(dealerHand::add);
+
+        return Game.builder()
+                .id("6f1c2a4e-3b5d-4c7e-9f8a-1b2c3d4e5f60")
+                .playerId("1")
+                .playerName("Player1")
+                .playerCards(playerCards)
+                .dealerCards(dealerCards)
+                .playerScore(playerHand.getScore())
+                .dealerScore(dealerHand.getScore())
+                .playerHand(playerHand)
+                .dealerHand(dealerHand)
+                .shoe(shoe)
+                .status(GameStatus.DEALER_WIN)
+                .bet(10.0)
+                .winnings(-10.0)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .version(3L)
+                .build();
+    }
+
+    private Player player(long id) {
+        return Player.builder()
+                .id(id)
+                .name("Player" + id)
+                .gamesPlayed(120)
+                .gamesWon(57)
+                .totalWinnings(245.5)
+                .winRate(47.5)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JacksonBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.benchmarks;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.H2TestDatabase;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara el GET /ranking actual (tota la taula) amb les pàgines per clau, sobre H2 amb 1M de jugadors
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RankingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param("1000000")
+    public int players;
+
+    private H2TestDatabase database;
+    private PlayerRepository playerRepository;
+    private Player middlePlayer;
+
+    @Setup
+    public void setUp() {
+        database = new H2TestDatabase("ranking-benchmark");
+        playerRepository = database.playerRepository();
+
+        // Estadístiques pseudoaleatòries però repetibles, amb molts empats
+        database.databaseClient().sql("INSERT INTO players (name, games_played, games_won, total_winnings, win_rate) " +
+                        "SELECT CONCAT('Player', X), 100, MOD(X * 7919, 101), MOD(X * 31, 1000) / 10.0, MOD(X * 7919, 101) " +
+                        "FROM SYSTEM_RANGE(1, :players)")
+                .bind("players", players)
+                .then()
+                .block();
+
+        middlePlayer = playerRepository.findRankingPage(players / 2).last().block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public long fullRanking() {
+        return playerRepository.findAllOrderByRanking().count().block();
+    }
+
+    @Benchmark
+    public List<Player> topPage() {
+        return playerRepository.findRankingPage(PAGE_SIZE).collectList().block();
+    }
+
+    @Benchmark
+    public List<Player> keysetPageFromMiddle() {
+        return playerRepository.findRankingPageAfter(middlePlayer.getWinRate(), middlePlayer.getTotalWinnings(),
+                middlePlayer.getId(), PAGE_SIZE).collectList().block();
+    }
+
+    @Benchmark
+    public List<Player> pageAroundMiddle() {
+        return playerRepository.findRankingPageBefore(middlePlayer.getWinRate(), middlePlayer.getTotalWinnings(),
+                        middlePlayer.getId(), PAGE_SIZE / 2)
+                .concatWith(playerRepository.findRankingPageAfter(middlePlayer.getWinRate(),
+                        middlePlayer.getTotalWinnings(), middlePlayer.getId(), PAGE_SIZE / 2))
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public long rankOfMiddle() {
+        return playerRepository.countPlayersAhead(middlePlayer.getWinRate(), middlePlayer.getTotalWinnings(),
+                middlePlayer.getId()).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RankingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,39 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class GameControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private GameService gameService;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(new GameController(gameService)).build();
+    }
+
+    @Test
+    void playSequence_WithNullAction_ShouldReturnBadRequest() {
+        // When & Then
+        webTestClient.post()
+                .uri("/game/{id}/plays", "game-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"actions\":[\"HIT\",null]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(gameService);
+    }
+}
@@ -0,0 +1,184 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameNotFoundException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameEvents;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.GameService;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.TableService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameSocketHandlerTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private TableService tableService;
+
+    @Mock
+    private WebSocketSession session;
+
+    private GameEvents events;
+
+    private GameSocketHandler handler;
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        events = new GameEvents(new SimpleMeterRegistry());
+        handler = new GameSocketHandler(gameService, tableService, events,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void handle_ShouldSendSnapshotThenTheChangesOfAPlaySentOnTheSocket() {
+        // Given
+        Game game = Game.builder()
+                .id("game-1")
+                .playerCards(new ArrayList<>(List.of(Card.of(0), Card.of(1))))
+                .dealerCards(new ArrayList<>(List.of(Card.of(2), Card.of(3))))
+                .status(GameStatus.IN_PROGRESS)
+                .build();
+        when(gameService.getGame("game-1")).thenReturn(Mono.just(game));
+        // La jugada publica com ho fa GameServiceImplement després de desar
+        when(gameService.playGame(eq("game-1"), any(PlayRequest.class))).thenAnswer(invocation -> {
+            GameMark before = events.mark(game);
+            game.getPlayerCards().add(Card.of(4));
+            game.setPlayerScore(11);
+            events.publish(before, game);
+            return Mono.just(game);
+        });
+        Sinks.Many<WebSocketMessage> incoming = Sinks.many().unicast().onBackpressureBuffer();
+        incoming.tryEmitNext(text("{\"action\":\"HIT\"}"));
+        mockSession("/ws/game/game-1", incoming.asFlux());
+
+        // When
+        handler.handle(session).subscribe();
+
+        // Then
+        awaitMessages(3);
+        assertTrue(sent.get(0).startsWith("{\"type\":\"SNAPSHOT\""), sent.get(0));
+        assertTrue(sent.get(1).contains("\"type\":\"CARD_DEALT\""), sent.get(1));
+        assertEquals("{\"type\":\"SCORE_CHANGED\",\"hand\":\"PLAYER\",\"score\":11}", sent.get(2));
+        incoming.tryEmitComplete();
+        assertFalse(events.isWatched("game-1"));
+    }
+
+    @Test
+    void handle_WithPlayWhileSnapshotIsRead_ShouldStillSendItsChangesWithTheVersion() {
+        // Given
+        Game game = Game.builder()
+                .id("game-1")
+                .playerCards(new ArrayList<>(List.of(Card.of(0), Card.of(1))))
+                .dealerCards(new ArrayList<>(List.of(Card.of(2), Card.of(3))))
+                .status(GameStatus.IN_PROGRESS)
+                .version(0L)
+                .build();
+        // Una altra petició juga just després de llegir l'estat de la cache
+        when(gameService.getGame("game-1")).thenAnswer(invocation -> {
+            Game read = game.toBuilder().playerCards(new ArrayList<>(game.getPlayerCards())).build();
+            GameMark before = events.mark(game);
+            game.getPlayerCards().add(Card.of(4));
+            game.setPlayerScore(11);
+            game.setVersion(1L);
+            events.publish(before, game);
+            return Mono.just(read);
+        });
+        mockSession("/ws/game/game-1", Flux.never());
+
+        // When
+        handler.handle(session).subscribe();
+
+        // Then
+        awaitMessages(3);
+        assertTrue(sent.get(0).startsWith("{\"type\":\"SNAPSHOT\""), sent.get(0));
+        assertTrue(sent.get(0).endsWith(",\"version\":0}"), sent.get(0));
+        assertTrue(sent.get(1).contains("\"type\":\"CARD_DEALT\""), sent.get(1));
+        assertEquals("{\"type\":\"SCORE_CHANGED\",\"hand\":\"PLAYER\",\"score\":11,\"version\":1}", sent.get(2));
+    }
+
+    @Test
+    void handle_WithUnknownGame_ShouldSendErrorAndFinish() {
+        // Given
+        when(gameService.getGame("missing")).thenReturn(Mono.error(new GameNotFoundException("Game not found with id: missing")));
+        mockSession("/ws/game/missing", Flux.never());
+
+        // When & Then: el handler acaba i WebFlux tanca el socket
+        StepVerifier.create(handler.handle(session))
+                .verifyComplete();
+        assertEquals(List.of("{\"type\":\"ERROR\",\"message\":\"Game not found with id: missing\"}"), sent);
+    }
+
+    @Test
+    void handle_WithInvalidCommand_ShouldAnswerOnlyThisClient() {
+        // Given
+        Game game = Game.builder().id("game-1").playerCards(new ArrayList<>()).dealerCards(new ArrayList<>()).build();
+        when(gameService.getGame("game-1")).thenReturn(Mono.just(game));
+        mockSession("/ws/game/game-1", Flux.just(text("{\"action\":\"SPLIT\"}")).concatWith(Flux.never()));
+
+        // When
+        handler.handle(session).subscribe();
+
+        // Then
+        awaitMessages(2);
+        assertEquals("{\"type\":\"ERROR\",\"message\":\"Invalid play command\"}", sent.get(1));
+        verify(gameService, never()).playGame(anyString(), any());
+    }
+
+    private void mockSession(String path, Flux<WebSocketMessage> incoming) {
+        when(session.getHandshakeInfo()).thenReturn(
+                new HandshakeInfo(URI.create("ws://localhost" + path), new HttpHeaders(), Mono.empty(), null));
+        when(session.receive()).thenReturn(incoming);
+        when(session.textMessage(anyString())).thenAnswer(invocation -> text(invocation.getArgument(0)));
+        when(session.send(any())).thenAnswer(invocation -> Flux.from(invocation.<Publisher<WebSocketMessage>>getArgument(0))
+                .doOnNext(message -> sent.add(message.getPayloadAsText()))
+                .then());
+    }
+
+    private void awaitMessages(int count) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (sent.size() < count && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(sent.size() >= count, "Messages sent: " + sent);
+    }
+
+    private static WebSocketMessage text(String payload) {
+        return new WebSocketMessage(WebSocketMessage.Type.TEXT,
+                DefaultDataBufferFactory.sharedInstance.wrap(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,23 +1,32 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
 
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankChange;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.RankedPlayer;
 import cat.itacademy.s05.t01.n01.BLACKJACK.dto.UpdatePlayerRequest;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
 import cat.itacademy.s05.t01.n01.BLACKJACK.services.PlayerService;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GlobalExceptionHandler;
 import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.PlayerNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class PlayerControllerTest {
@@ -99,6 +108,175 @@ class PlayerControllerTest {
         verify(playerService).getRanking();
     }
 
+    @Test
+    void getRanking_WithLimit_ShouldReturnTopPlayers() {
+        // Given
+        when(playerService.getTopPlayers(1)).thenReturn(Flux.just(testPlayer));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/ranking?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Player.class)
+                .hasSize(1);
+
+        verify(playerService).getTopPlayers(1);
+    }
+
+    @Test
+    void getRanking_WithAfterCursor_ShouldReturnNextPage() {
+        // Given
+        when(playerService.getRankingAfter(1L, 20)).thenReturn(Flux.just(testPlayer));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/ranking?after=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Player.class)
+                .hasSize(1);
+
+        verify(playerService).getRankingAfter(1L, 20);
+    }
+
+    @Test
+    void getRanking_WithPlayerId_ShouldReturnPlayersAroundIt() {
+        // Given
+        when(playerService.getRankingAround(1L, 5)).thenReturn(Flux.just(testPlayer));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/ranking?playerId=1&limit=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Player.class)
+                .hasSize(1);
+
+        verify(playerService).getRankingAround(1L, 5);
+    }
+
+    @Test
+    void getRanking_WithLimitOutOfRange_ShouldReturnBadRequest() {
+        // Given
+        WebTestClient client = WebTestClient.bindToController(new PlayerController(playerService))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        // When & Then
+        client.get().uri("/ranking?limit=0").exchange().expectStatus().isBadRequest();
+        client.get().uri("/ranking?after=1&limit=2147483647").exchange().expectStatus().isBadRequest();
+        client.get().uri("/ranking?limit=101")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void getRanking_WithNdjsonAccept_ShouldStreamOnePlayerPerLine() {
+        // Given
+        Player second = Player.builder().id(2L).name("Second").winRate(50.0).build();
+        when(playerService.getRanking()).thenReturn(Flux.just(testPlayer, second));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/ranking")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> {
+                    assert body.lines().count() == 2;
+                    assert body.startsWith("{\"id\":1,");
+                });
+    }
+
+    @Test
+    void streamRanking_ShouldSendRankedPlayersAsEvents() {
+        // Given
+        when(playerService.getTopPlayers(1)).thenReturn(Flux.just(testPlayer));
+
+        // When & Then
+        StepVerifier.create(webTestClient.get()
+                        .uri("/ranking?limit=1")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(new ParameterizedTypeReference<ServerSentEvent<RankedPlayer>>() {})
+                        .getResponseBody())
+                .expectNextMatches(event -> "player".equals(event.event()) &&
+                        event.data().getRank() == 1 &&
+                        event.data().getPlayer().getName().equals("TestPlayer"))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamRanking_InLiveMode_ShouldSendRankChangesAfterRanking() {
+        // Given
+        Player moved = testPlayer.toBuilder().winRate(75.0).build();
+        when(playerService.getRanking()).thenReturn(Flux.just(testPlayer));
+        when(playerService.getRankingChanges()).thenReturn(Flux.just(new RankChange(1, 1, moved)));
+
+        // When & Then
+        StepVerifier.create(webTestClient.get()
+                        .uri("/ranking?live=true")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                        .getResponseBody())
+                .expectNextMatches(event -> "player".equals(event.event()))
+                .expectNextMatches(event -> "rank-change".equals(event.event()) && event.data().contains("75.0"))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamRanking_InLiveMode_ShouldNotLoseChangesMadeWhileReadingRanking() {
+        // Given
+        Player moved = testPlayer.toBuilder().winRate(75.0).build();
+        Sinks.Many<RankChange> changes = Sinks.many().multicast().directBestEffort();
+        when(playerService.getRankingChanges()).thenReturn(changes.asFlux());
+        // Una partida es liquida just quan es llegeix el rànquing
+        when(playerService.getRanking()).thenAnswer(invocation -> {
+            changes.tryEmitNext(new RankChange(1, 1, moved));
+            return Flux.just(testPlayer);
+        });
+
+        // When & Then
+        StepVerifier.create(webTestClient.get()
+                        .uri("/ranking?live=true")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                        .getResponseBody())
+                .expectNextMatches(event -> "player".equals(event.event()))
+                .expectNextMatches(event -> "rank-change".equals(event.event()) && event.data().contains("75.0"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getPlayerRank_ShouldReturnPositionAndPlayer() {
+        // Given
+        when(playerService.getPlayerRank(1L)).thenReturn(Mono.just(new RankedPlayer(3, testPlayer)));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/ranking/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RankedPlayer.class)
+                .value(ranked -> {
+                    assert ranked.getRank() == 3;
+                    assert ranked.getPlayer().getName().equals("TestPlayer");
+                });
+
+        verify(playerService).getPlayerRank(1L);
+    }
+
     @Test
     void updatePlayerName_ShouldReturnUpdatedPlayer() {
         // Given
@@ -0,0 +1,89 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.controllers;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.RequestLogProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.services.PlayerService;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestLogFilterTest {
+
+    @Mock
+    private PlayerService playerService;
+
+    private RequestLogProperties properties;
+    private WebTestClient webTestClient;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RequestLogProperties();
+        webTestClient = WebTestClient.bindToController(new PlayerController(playerService))
+                .webFilter(new RequestLogFilter(properties))
+                .build();
+
+        appender = new ListAppender<>();
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(RequestLogFilter.class)).addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((Logger) LoggerFactory.getLogger(RequestLogFilter.class)).detachAppender(appender);
+    }
+
+    @Test
+    void filter_WhenSampled_ShouldLogMethodPathAndStatus() {
+        // Given
+        properties.setSampleRate(1.0);
+        when(playerService.getRanking()).thenReturn(Flux.just(Player.builder().id(1L).name("TopPlayer").build()));
+
+        // When
+        webTestClient.get().uri("/ranking").exchange().expectStatus().isOk();
+
+        // Then
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.getFirst().getFormattedMessage().startsWith("GET /ranking -> 200 OK in "));
+    }
+
+    @Test
+    void filter_WhenNotSampled_ShouldNotLogSuccessfulRequests() {
+        // Given
+        properties.setSampleRate(0.0);
+        when(playerService.getRanking()).thenReturn(Flux.empty());
+
+        // When
+        webTestClient.get().uri("/ranking").exchange().expectStatus().isOk();
+
+        // Then
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void filter_WhenNotSampled_ShouldStillLogServerErrors() {
+        // Given
+        properties.setSampleRate(0.0);
+        when(playerService.getRanking()).thenReturn(Flux.error(new IllegalStateException("boom")));
+
+        // When
+        webTestClient.get().uri("/ranking").exchange().expectStatus().is5xxServerError();
+
+        // Then
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.getFirst().getFormattedMessage().startsWith("GET /ranking -> "));
+    }
+}
@@ -0,0 +1,100 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.converters;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.MongoConfig;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardListConverterTest {
+
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+
+        converter = new MongoConfig().mappingMongoConverter(context, conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void write_ShouldStoreEachHandAsOneBytePerCard() {
+        // Given
+        Game game = Game.builder()
+                .id("game-1")
+                .playerCards(new ArrayList<>(List.of(Card.of(Card.Suit.HEARTS, Card.Rank.ACE),
+                        Card.of(Card.Suit.SPADES, Card.Rank.KING))))
+                .dealerCards(new ArrayList<>(List.of(Card.of(Card.Suit.CLUBS, Card.Rank.NINE))))
+                .status(GameStatus.PLAYER_BLACKJACK)
+                .build();
+
+        // When
+        Document document = new Document();
+        converter.write(game, document);
+
+        // Then
+        assertArrayEquals(new byte[]{12, 50}, (byte[]) document.get("playerCards"));
+        assertArrayEquals(new byte[]{33}, (byte[]) document.get("dealerCards"));
+        assertFalse(document.containsKey("_class"));
+
+        Game read = converter.read(Game.class, document);
+        assertEquals(game.getPlayerCards(), read.getPlayerCards());
+        assertEquals(game.getDealerCards(), read.getDealerCards());
+    }
+
+    @Test
+    void read_WhenHandIsBsonBinary_ShouldDecodeCards() {
+        // Given
+        Document document = new Document("_id", "game-2")
+                .append("playerCards", new Binary(new byte[]{0, 51}))
+                .append("dealerCards", new Binary(new byte[0]));
+
+        // When
+        Game game = converter.read(Game.class, document);
+
+        // Then
+        assertEquals(List.of(Card.of(0), Card.of(51)), game.getPlayerCards());
+        assertTrue(game.getDealerCards().isEmpty());
+    }
+
+    @Test
+    void read_WhenDocumentUsesLegacyCardSubdocuments_ShouldStillDecodeCards() {
+        // Given
+        Document document = new Document("_id", "legacy-game")
+                .append("_class", Game.class.getName())
+                .append("playerCards", List.of(
+                        new Document("suit", "HEARTS").append("rank", "TEN"),
+                        new Document("suit", "SPADES").append("rank", "ACE")))
+                .append("dealerCards", List.of(
+                        new Document("suit", "DIAMONDS").append("rank", "NINE")))
+                .append("status", "IN_PROGRESS");
+
+        // When
+        Game game = converter.read(Game.class, document);
+
+        // Then
+        assertEquals(List.of(new Card(Card.Suit.HEARTS, Card.Rank.TEN), new Card(Card.Suit.SPADES, Card.Rank.ACE)),
+                game.getPlayerCards());
+        assertEquals(List.of(new Card(Card.Suit.DIAMONDS, Card.Rank.NINE)), game.getDealerCards());
+        assertEquals(GameStatus.IN_PROGRESS, game.getStatus());
+
+        // La llista llegida ha de ser modificable per continuar la partida
+        game.getPlayerCards().add(Card.of(0));
+        assertEquals(3, game.getPlayerCards().size());
+    }
+}
@@ -0,0 +1,60 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.engine;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlackjackRulesTest {
+
+    @Test
+    void settle_ShouldCompareScoresAfterDealerPlays() {
+        assertEquals(GameStatus.DEALER_BUST, BlackjackRules.settle(hand(10, 8), hand(10, 6, 9)));
+        assertEquals(GameStatus.PLAYER_WIN, BlackjackRules.settle(hand(10, 9), hand(10, 8)));
+        assertEquals(GameStatus.DEALER_WIN, BlackjackRules.settle(hand(10, 7), hand(10, 8)));
+        assertEquals(GameStatus.PUSH, BlackjackRules.settle(hand(10, 8), hand(9, 9)));
+    }
+
+    @Test
+    void afterDealAndHit_ShouldDetectBlackjackAndBust() {
+        assertEquals(GameStatus.PLAYER_BLACKJACK, BlackjackRules.afterDeal(hand(11, 10)));
+        assertEquals(GameStatus.IN_PROGRESS, BlackjackRules.afterDeal(hand(10, 9)));
+        assertEquals(GameStatus.PLAYER_BUST, BlackjackRules.afterHit(hand(10, 9, 5)));
+        assertEquals(GameStatus.IN_PROGRESS, BlackjackRules.afterHit(hand(11, 9, 5)));
+    }
+
+    @Test
+    void dealerMustHit_ShouldStandOnSeventeen() {
+        assertTrue(BlackjackRules.dealerMustHit(hand(10, 6)));
+        assertFalse(BlackjackRules.dealerMustHit(hand(10, 7)));
+        assertFalse(BlackjackRules.dealerMustHit(hand(11, 6)));
+    }
+
+    @Test
+    void winnings_ShouldPayPerOutcome() {
+        assertEquals(15.0, BlackjackRules.winnings(GameStatus.PLAYER_BLACKJACK, 10.0));
+        assertEquals(10.0, BlackjackRules.winnings(GameStatus.DEALER_BUST, 10.0));
+        assertEquals(-10.0, BlackjackRules.winnings(GameStatus.PLAYER_BUST, 10.0));
+        assertEquals(0.0, BlackjackRules.winnings(GameStatus.PUSH, 10.0));
+    }
+
+    @Test
+    void playerWins_ShouldMatchPositiveWinnings() {
+        assertTrue(BlackjackRules.playerWins(GameStatus.PLAYER_BLACKJACK));
+        assertTrue(BlackjackRules.playerWins(GameStatus.PLAYER_WIN));
+        assertTrue(BlackjackRules.playerWins(GameStatus.DEALER_BUST));
+        assertFalse(BlackjackRules.playerWins(GameStatus.PUSH));
+        assertFalse(BlackjackRules.playerWins(GameStatus.DEALER_WIN));
+        assertFalse(BlackjackRules.playerWins(GameStatus.PLAYER_BUST));
+    }
+
+    private HandValue hand(int... values) {
+        HandValue hand = new HandValue();
+        Arrays.stream(values).forEach(value -> hand.add(value, value == Card.Rank.ACE.getValue()));
+        return hand;
+    }
+}
@@ -0,0 +1,47 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.engine;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+
+    @Test
+    void run_WithSameSeed_ShouldBeReproducible() {
+        // Given
+        Simulator simulator = new Simulator(1, Strategy.basic());
+
+        // When
+        SimulationReport first = simulator.run(3_000_000, 42);
+        SimulationReport second = simulator.run(3_000_000, 42);
+
+        // Then
+        assertEquals(first, second);
+        assertEquals(3_000_000, first.outcomes().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(1.0, first.payoutDistribution().values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+    }
+
+    @Test
+    void run_WhenPlayerNeverHits_ShouldNeverBust() {
+        // When
+        SimulationReport report = new Simulator(1, Strategy.hitUntil(0)).run(200_000, 7);
+
+        // Then
+        assertEquals(0.0, report.playerBustRate());
+        assertFalse(report.outcomes().containsKey(GameStatus.IN_PROGRESS));
+        // Plantar-se sempre dona un avantatge clar a la casa
+        assertTrue(report.houseEdge() > 0.10, "House edge was " + report.houseEdge());
+    }
+
+    @Test
+    void run_WithBasicStrategy_ShouldBeatAlwaysStanding() {
+        // When
+        SimulationReport basic = new Simulator(6, Strategy.basic()).run(500_000, 11);
+        SimulationReport standing = new Simulator(6, Strategy.hitUntil(0)).run(500_000, 11);
+
+        // Then
+        assertTrue(basic.houseEdge() < standing.houseEdge());
+        assertTrue(basic.dealerBustRate() > 0.15 && basic.dealerBustRate() < 0.35);
+    }
+}
@@ -0,0 +1,18 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.loadtest;
+
+// Peticions que fa el generador de càrrega; el nom és el que surt a l'informe i a loadtest.mix
+public enum Endpoint {
+    NEW("POST /game/new"),
+    PLAY("POST /game/{id}/play"),
+    RANKING("GET /ranking");
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,168 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.loadtest;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateGameRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import org.HdrHistogram.Recorder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Càrrega en bucle tancat: sempre hi ha `concurrency` peticions en vol, repartides segons el mix.
+// La latència va de l'enviament fins a llegir tota la resposta.
+public class LoadGenerator {
+
+    private static final int RANKING_PAGE_SIZE = 20;
+    private static final int STAND_ON = 17;
+
+    private final LoadTestOptions options;
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final Map<Endpoint, Recorder> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+
+    // Partides en curs que ningú està jugant: una jugada la treu i la retorna si continua en curs
+    private final Queue<GameView> inProgress = new ConcurrentLinkedQueue<>();
+    private volatile long measureFrom;
+
+    record GameView(String id, GameStatus status, int playerScore) {
+    }
+
+    public LoadGenerator(String baseUrl, LoadTestOptions options) {
+        this.options = options;
+        this.connectionProvider = ConnectionProvider.builder("loadtest")
+                .maxConnections(options.concurrency())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+
+        this.endpoints = options.mix().keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += options.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new Recorder(3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public LoadReport run() {
+        // Una sola tirada: tallar-la en acabar l'escalfament tancaria connexions amb peticions a mitges.
+        // Només compten les peticions que comencen dins de la finestra de mesura.
+        measureFrom = System.nanoTime() + options.warmup().toNanos();
+        try {
+            Flux.<Endpoint>generate(sink -> sink.next(nextEndpoint()))
+                    .flatMap(this::execute, options.concurrency())
+                    .take(options.warmup().plus(options.duration()))
+                    .blockLast();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - measureFrom);
+
+            Map<Endpoint, LoadReport.EndpointResult> results = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                results.put(endpoint, LoadReport.EndpointResult.of(latencies.get(endpoint).getIntervalHistogram(),
+                        errors.get(endpoint).sum(), elapsed));
+            }
+            return new LoadReport(elapsed, options.concurrency(), results);
+        } finally {
+            connectionProvider.dispose();
+        }
+    }
+
+    private Endpoint nextEndpoint() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private Mono<?> execute(Endpoint endpoint) {
+        return switch (endpoint) {
+            case NEW -> timed(Endpoint.NEW, newGame());
+            case PLAY -> {
+                // Sense cap partida lliure, es crea una de nova en lloc de jugar
+                GameView game = inProgress.poll();
+                yield game == null ? timed(Endpoint.NEW, newGame()) : timed(Endpoint.PLAY, play(game));
+            }
+            case RANKING -> timed(Endpoint.RANKING, ranking());
+        };
+    }
+
+    private Mono<?> timed(Endpoint endpoint, Mono<?> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            boolean measured = start >= measureFrom;
+            return request
+                    .doOnSuccess(ignored -> {
+                        if (measured) {
+                            latencies.get(endpoint).recordValue(System.nanoTime() - start);
+                        }
+                    })
+                    .onErrorResume(error -> {
+                        if (measured) {
+                            errors.get(endpoint).increment();
+                        }
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private Mono<GameView> newGame() {
+        CreateGameRequest request = new CreateGameRequest();
+        request.setPlayerName("load-player-" + ThreadLocalRandom.current().nextInt(options.players()));
+
+        return webClient.post()
+                .uri("/game/new")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(GameView.class)
+                .doOnNext(this::release);
+    }
+
+    // Estratègia de casa: demana carta fins a 17
+    private Mono<GameView> play(GameView game) {
+        PlayRequest request = new PlayRequest();
+        request.setAction(game.playerScore() < STAND_ON ? PlayRequest.PlayAction.HIT : PlayRequest.PlayAction.STAND);
+
+        return webClient.post()
+                .uri("/game/{id}/play", game.id())
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(GameView.class)
+                .doOnNext(this::release);
+    }
+
+    private Mono<?> ranking() {
+        return webClient.get()
+                .uri(uri -> uri.path("/ranking").queryParam("limit", RANKING_PAGE_SIZE).build())
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private void release(GameView game) {
+        if (game.status() == GameStatus.IN_PROGRESS) {
+            inProgress.offer(game);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+// Resultat per endpoint de la finestra de mesura (sense l'escalfament)
+public record LoadReport(Duration elapsed, int concurrency, Map<Endpoint, EndpointResult> endpoints) {
+
+    public record EndpointResult(long requests, long errors, double throughput,
+                                 double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        static EndpointResult of(Histogram histogram, long errors, Duration elapsed) {
+            return new EndpointResult(
+                    histogram.getTotalCount(),
+                    errors,
+                    histogram.getTotalCount() / (elapsed.toNanos() / 1e9),
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+
+    public long totalRequests() {
+        return endpoints.values().stream().mapToLong(EndpointResult::requests).sum();
+    }
+
+    public long totalErrors() {
+        return endpoints.values().stream().mapToLong(EndpointResult::errors).sum();
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%nLoad test: %d concurrent requests for %.1f s%n%n",
+                concurrency, elapsed.toMillis() / 1000.0);
+        out.printf(Locale.ROOT, "%-22s %10s %8s %10s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        endpoints.forEach((endpoint, result) -> out.printf(Locale.ROOT,
+                "%-22s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint.getLabel(), result.requests(), result.errors(), result.throughput(),
+                result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis()));
+        out.printf(Locale.ROOT, "%-22s %10d %8d %10.1f%n", "Total", totalRequests(), totalErrors(),
+                totalRequests() / (elapsed.toNanos() / 1e9));
+    }
+}
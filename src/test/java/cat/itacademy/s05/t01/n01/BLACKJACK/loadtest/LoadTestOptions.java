@@ -0,0 +1,40 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Paràmetres de la prova; per defecte, els de -Dloadtest.* (vegeu el perfil loadtest del pom.xml)
+public record LoadTestOptions(Duration warmup, Duration duration, int concurrency, int players,
+                              Map<Endpoint, Integer> mix) {
+
+    public static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Integer.getInteger("loadtest.players", 1000),
+                parseMix(System.getProperty("loadtest.mix", "new=20,play=70,ranking=10")));
+    }
+
+    // "new=20,play=70,ranking=10": pesos relatius, no cal que sumin 100
+    public static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix: " + entry);
+            }
+            weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+        }
+        return weights;
+    }
+}
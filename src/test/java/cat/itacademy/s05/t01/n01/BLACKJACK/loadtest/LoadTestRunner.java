@@ -0,0 +1,60 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.loadtest;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.BlackjackApplication;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.InMemoryMongo;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Arrenca l'aplicació sencera contra substituts en memòria (Mongo en procés i H2 en mode MySQL)
+// i hi llança càrrega per HTTP. Des de Maven: mvn -Ploadtest test -Dloadtest.concurrency=128
+public class LoadTestRunner {
+
+    public static void main(String[] args) {
+        LoadReport report = run(LoadTestOptions.fromSystemProperties(), args);
+        report.print(System.out);
+        System.exit(report.totalErrors() == 0 ? 0 : 1);
+    }
+
+    // Els args extra són propietats de Spring, per exemple --blackjack.stats.write-behind.enabled=true
+    public static LoadReport run(LoadTestOptions options, String... args) {
+        // DevTools reiniciaria l'aplicació en un altre classloader i perdria les propietats de sota
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (InMemoryMongo mongo = new InMemoryMongo();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(BlackjackApplication.class)
+                     .run(commandLine(mongo, args))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return new LoadGenerator("http://localhost:" + port, options).run();
+        }
+    }
+
+    // Com a arguments perquè passin per davant de application.yml; els de l'usuari tenen prioritat
+    private static String[] commandLine(InMemoryMongo mongo, String[] args) {
+        Map<String, String> properties = new LinkedHashMap<>(standInProperties(mongo));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (arg.startsWith("--") && separator > 2) {
+                properties.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static Map<String, String> standInProperties(InMemoryMongo mongo) {
+        return Map.of(
+                "spring.data.mongodb.uri", mongo.uri("blackjack"),
+                "spring.r2dbc.url", "r2dbc:h2:mem:///loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "spring.r2dbc.username", "sa",
+                "spring.r2dbc.password", "",
+                "server.port", "0",
+                // Logs com a producció: appender asíncron i log de peticions mostrejat
+                "spring.profiles.active", "prod",
+                "logging.level.de.bwaldvogel.mongo", "WARN");
+    }
+}
@@ -0,0 +1,39 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestRunnerTest {
+
+    @Test
+    void run_WithShortMix_ShouldReachEveryEndpointWithoutErrors() {
+        // Given
+        LoadTestOptions options = new LoadTestOptions(Duration.ofSeconds(2), Duration.ofSeconds(3), 4, 20,
+                LoadTestOptions.parseMix("new=30,play=60,ranking=10"));
+
+        // When
+        LoadReport report = LoadTestRunner.run(options);
+
+        // Then
+        assertEquals(0, report.totalErrors());
+        for (Endpoint endpoint : Endpoint.values()) {
+            LoadReport.EndpointResult result = report.endpoints().get(endpoint);
+            assertTrue(result.requests() > 0, "No requests measured for " + endpoint.getLabel());
+            assertTrue(result.p50Millis() <= result.p99Millis());
+            assertTrue(result.p99Millis() <= result.maxMillis());
+        }
+    }
+
+    @Test
+    void parseMix_ShouldReadWeightsAndRejectInvalidEntries() {
+        // When & Then
+        assertEquals(Map.of(Endpoint.NEW, 1, Endpoint.RANKING, 3), LoadTestOptions.parseMix("new=1, RANKING=3"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parseMix("new"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parseMix("new=0,play=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parseMix("delete=5"));
+    }
+}
@@ -0,0 +1,113 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandValueTest {
+
+    private static final int MAX_HAND_SIZE = 11;
+
+    // Un representant per cada valor possible: 2-9, 10 (10/J/Q/K) i as
+    private static final Card.Rank[] VALUE_CLASSES = {
+            Card.Rank.TWO, Card.Rank.THREE, Card.Rank.FOUR, Card.Rank.FIVE, Card.Rank.SIX,
+            Card.Rank.SEVEN, Card.Rank.EIGHT, Card.Rank.NINE, Card.Rank.TEN, Card.Rank.ACE
+    };
+
+    private final Random random = new Random(21);
+    private int handsChecked;
+
+    @Test
+    void add_ShouldMatchFullRescanForEveryHandUpToElevenCards() {
+        // Totes les combinacions de valors (amb repetició) fins a 11 cartes, en un ordre aleatori
+        enumerate(new ArrayList<>(), 0);
+
+        assertEquals(352_715, handsChecked);
+    }
+
+    @Test
+    void isBlackjack_ShouldOnlyHoldForTwoCardTwentyOne() {
+        // Given
+        HandValue blackjack = HandValue.of(List.of(Card.of(Card.Suit.HEARTS, Card.Rank.ACE),
+                Card.of(Card.Suit.SPADES, Card.Rank.KING)));
+        HandValue threeCardTwentyOne = HandValue.of(List.of(Card.of(Card.Suit.HEARTS, Card.Rank.SEVEN),
+                Card.of(Card.Suit.SPADES, Card.Rank.SEVEN), Card.of(Card.Suit.CLUBS, Card.Rank.SEVEN)));
+
+        // When & Then
+        assertTrue(blackjack.isBlackjack());
+        assertTrue(blackjack.isSoft());
+        assertFalse(threeCardTwentyOne.isBlackjack());
+        assertEquals(21, threeCardTwentyOne.getScore());
+    }
+
+    @Test
+    void add_WhenSoftHandWouldBust_ShouldCountAceAsOne() {
+        // Given
+        HandValue hand = HandValue.of(List.of(Card.of(Card.Suit.HEARTS, Card.Rank.ACE),
+                Card.of(Card.Suit.SPADES, Card.Rank.SIX)));
+        assertEquals(17, hand.getScore());
+        assertTrue(hand.isSoft());
+
+        // When
+        hand.add(Card.of(Card.Suit.CLUBS, Card.Rank.NINE));
+
+        // Then
+        assertEquals(16, hand.getScore());
+        assertFalse(hand.isSoft());
+        assertFalse(hand.isBust());
+    }
+
+    private void enumerate(List<Card> hand, int firstClass) {
+        if (!hand.isEmpty()) {
+            check(hand);
+        }
+        if (hand.size() == MAX_HAND_SIZE) {
+            return;
+        }
+        for (int i = firstClass; i < VALUE_CLASSES.length; i++) {
+            hand.add(Card.of(Card.Suit.values()[hand.size() % 4], VALUE_CLASSES[i]));
+            enumerate(hand, i);
+            hand.remove(hand.size() - 1);
+        }
+    }
+
+    private void check(List<Card> multiset) {
+        handsChecked++;
+        List<Card> cards = new ArrayList<>(multiset);
+        Collections.shuffle(cards, random);
+
+        HandValue hand = new HandValue();
+        for (int i = 0; i < cards.size(); i++) {
+            hand.add(cards.get(i));
+            int expected = calculateScore(cards.subList(0, i + 1));
+            assertEquals(expected, hand.getScore(), () -> "Hand " + cards);
+            assertEquals(expected > 21, hand.isBust());
+        }
+        assertEquals(cards.size() == 2 && hand.getScore() == 21, hand.isBlackjack());
+    }
+
+    // Algorisme original de GameServiceImplement.calculateScore, com a referència
+    private static int calculateScore(List<Card> cards) {
+        int score = 0;
+        int aces = 0;
+
+        for (Card card : cards) {
+            if (card.getRank() == Card.Rank.ACE) {
+                aces++;
+            }
+            score += card.getValue();
+        }
+
+        while (score > 21 && aces > 0) {
+            score -= 10;
+            aces--;
+        }
+
+        return score;
+    }
+}
@@ -0,0 +1,93 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.model;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShoeTest {
+
+    @Test
+    void shuffled_ShouldContainEveryCardOncePerDeck() {
+        // Given
+        Shoe shoe = Shoe.shuffled(6, new SplittableRandom(42));
+
+        // When
+        Map<Card, Integer> counts = new HashMap<>();
+        while (shoe.remaining() > 0) {
+            counts.merge(shoe.draw(), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(Card.DECK_SIZE, counts.size());
+        counts.values().forEach(count -> assertEquals(6, count));
+    }
+
+    @Test
+    void draw_ShouldNeverRepeatCardsFromASingleDeck() {
+        // Given
+        Shoe shoe = Shoe.shuffled(1, new SplittableRandom(7));
+
+        // When & Then
+        boolean[] seen = new boolean[Card.DECK_SIZE];
+        for (int i = 0; i < Card.DECK_SIZE; i++) {
+            int code = shoe.draw().getCode();
+            assertFalse(seen[code]);
+            seen[code] = true;
+        }
+        assertEquals(0, shoe.remaining());
+    }
+
+    @Test
+    void draw_WhenShoeIsExhausted_ShouldThrowException() {
+        // Given
+        Shoe shoe = Shoe.shuffled(1, new SplittableRandom(1));
+        shoe.setPosition(Card.DECK_SIZE);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, shoe::draw);
+    }
+
+    @Test
+    void discard_ShouldRemoveCardFromUndealtCards() {
+        // Given
+        Shoe shoe = Shoe.shuffled(1, new SplittableRandom(3));
+        Card aceOfSpades = new Card(Card.Suit.SPADES, Card.Rank.ACE);
+
+        // When
+        shoe.discard(aceOfSpades);
+
+        // Then
+        assertEquals(Card.DECK_SIZE - 1, shoe.remaining());
+        while (shoe.remaining() > 0) {
+            assertNotEquals(aceOfSpades, shoe.draw());
+        }
+        assertThrows(IllegalStateException.class, () -> shoe.discard(aceOfSpades));
+    }
+
+    @Test
+    void cardOf_ShouldRoundTripEveryCode() {
+        for (int code = 0; code < Card.DECK_SIZE; code++) {
+            assertEquals(code, Card.of(code).getCode());
+        }
+    }
+
+    @Test
+    void cardFromJson_ShouldBeTheSharedInstance() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        Card aceOfSpades = Card.of(Card.Suit.SPADES, Card.Rank.ACE);
+
+        // When
+        Card card = objectMapper.readValue(objectMapper.writeValueAsString(aceOfSpades), Card.class);
+
+        // Then
+        assertSame(aceOfSpades, card);
+        assertSame(Card.of(aceOfSpades.getCode()), card);
+    }
+}
@@ -0,0 +1,234 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.engine.BlackjackRules;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSourcedGameStoreTest {
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path directory;
+
+    private SegmentFileGameEventLog eventLog;
+    private EventSourcedGameStore store;
+
+    @BeforeEach
+    void setUp() {
+        eventLog = new SegmentFileGameEventLog(directory, 1024, MAPPER);
+        store = new EventSourcedGameStore(eventLog, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventLog.close();
+    }
+
+    @Test
+    void findById_AfterPlaysAndRestart_ShouldRebuildTheSameGame() {
+        // Given
+        Game game = store.create(dealtGame()).block();
+        GameMark before = GameMark.of(game);
+        Game played = store.updateIfInProgress(hit(game), before).block();
+        eventLog.close();
+
+        // When
+        eventLog = new SegmentFileGameEventLog(directory, 1024, MAPPER);
+        Game rebuilt = new EventSourcedGameStore(eventLog, 10).findById(game.getId()).block();
+
+        // Then
+        assertNotNull(rebuilt);
+        assertEquals(2L, played.getVersion());
+        assertEquals(played.getVersion(), rebuilt.getVersion());
+        assertEquals(played.getPlayerCards(), rebuilt.getPlayerCards());
+        assertEquals(played.getPlayerScore(), rebuilt.getPlayerScore());
+        assertEquals(played.getShoe().getPosition(), rebuilt.getShoe().getPosition());
+    }
+
+    @Test
+    void updateIfInProgress_Stand_ShouldAppendOnePlayWithDealerCardsAndResultWithoutExposingTheShoe() {
+        // Given
+        Game game = store.create(dealtGame()).block();
+        GameMark before = GameMark.of(game);
+
+        // When
+        Game settled = store.updateIfInProgress(stand(game), before).block();
+
+        // Then
+        assertNotEquals(GameStatus.IN_PROGRESS, settled.getStatus());
+        StepVerifier.create(store.history(game.getId()))
+                .expectNextMatches(event -> event.getType() == GameLogEvent.Type.DEALT && event.getShoe() == null)
+                .expectNextMatches(event -> event.getType() == GameLogEvent.Type.PLAY
+                        && event.getSeq() == 2
+                        && event.getPlayerCards() == null
+                        && event.getDealerCards().size() == settled.getDealerCards().size() - 2
+                        && event.getStatus() == settled.getStatus()
+                        && event.getWinnings() == settled.getWinnings())
+                .verifyComplete();
+        StepVerifier.create(store.findById(game.getId()))
+                .expectNextMatches(rebuilt -> rebuilt.getStatus() == settled.getStatus()
+                        && rebuilt.getDealerScore() == settled.getDealerScore())
+                .verifyComplete();
+    }
+
+    @Test
+    void updateIfInProgress_PastSnapshotInterval_ShouldReplayFromSnapshot() {
+        // Given
+        store = new EventSourcedGameStore(eventLog, 2);
+        Game game = store.create(dealtGame()).block();
+        GameMark before = GameMark.of(game);
+
+        // When
+        Game played = store.updateIfInProgress(hit(game), before).block();
+
+        // Then
+        StepVerifier.create(eventLog.latestSnapshot(game.getId()))
+                .expectNextMatches(snapshot -> snapshot.getSeq() == 2 && snapshot.getPlayerCards().size() == 3)
+                .verifyComplete();
+        StepVerifier.create(store.findById(game.getId()))
+                .expectNextMatches(rebuilt -> rebuilt.getVersion() == 2
+                        && rebuilt.getPlayerCards().equals(played.getPlayerCards()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateIfInProgress_FromSameVersionTwice_ShouldRejectTheSecondPlay() {
+        // Given
+        Game game = store.create(dealtGame()).block();
+        Game first = store.findById(game.getId()).block();
+        Game second = store.findById(game.getId()).block();
+
+        GameMark before = GameMark.of(first);
+
+        // When
+        store.updateIfInProgress(hit(first), before).block();
+
+        // Then
+        StepVerifier.create(store.updateIfInProgress(stand(second), before))
+                .verifyComplete();
+        StepVerifier.create(store.findById(game.getId()))
+                .expectNextMatches(rebuilt -> rebuilt.getStatus() == GameStatus.IN_PROGRESS
+                        && rebuilt.getPlayerCards().size() == 3)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateIfInProgress_BustAndStandFromSameVersion_ShouldKeepOnlyTheWholeFirstPlay() {
+        // Given: dues peticions llegeixen la mateixa versió; la primera es passa, la segona es planta
+        Game game = store.create(dealtGame()).block();
+        Game busting = store.findById(game.getId()).block();
+        Game standing = store.findById(game.getId()).block();
+        GameMark before = GameMark.of(busting);
+        while (!busting.getPlayerHand().isBust()) {
+            hit(busting);
+        }
+        busting.setStatus(GameStatus.PLAYER_BUST);
+        busting.setWinnings(BlackjackRules.winnings(GameStatus.PLAYER_BUST, busting.getBet()));
+
+        // When
+        Game bust = store.updateIfInProgress(busting, before).block();
+
+        // Then: la jugada de la segona no troba lloc, i la primera hi és sencera (cartes i resultat)
+        assertEquals(2L, bust.getVersion());
+        StepVerifier.create(store.updateIfInProgress(stand(standing), before))
+                .verifyComplete();
+        StepVerifier.create(store.history(game.getId()))
+                .expectNextMatches(event -> event.getType() == GameLogEvent.Type.DEALT)
+                .expectNextMatches(event -> event.getType() == GameLogEvent.Type.PLAY
+                        && event.getPlayerCards().size() == bust.getPlayerCards().size() - 2
+                        && event.getDealerCards() == null
+                        && event.getStatus() == GameStatus.PLAYER_BUST)
+                .verifyComplete();
+        StepVerifier.create(store.findById(game.getId()))
+                .expectNextMatches(rebuilt -> rebuilt.getStatus() == GameStatus.PLAYER_BUST
+                        && rebuilt.getPlayerCards().equals(bust.getPlayerCards())
+                        && rebuilt.getDealerCards().size() == 2)
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteById_ShouldHideGameButKeepItsHistory() {
+        // Given
+        Game game = store.create(dealtGame()).block();
+
+        // When
+        store.deleteById(game.getId()).block();
+
+        // Then
+        StepVerifier.create(store.findById(game.getId())).verifyComplete();
+        StepVerifier.create(store.history(game.getId()).map(GameLogEvent::getType))
+                .expectNext(GameLogEvent.Type.DEALT, GameLogEvent.Type.DELETED)
+                .verifyComplete();
+    }
+
+    // Una partida en curs on el jugador no es pot passar amb una carta més
+    private static Game dealtGame() {
+        for (int seed = 0; ; seed++) {
+            Shoe shoe = Shoe.shuffled(1, new SplittableRandom(seed));
+            HandValue playerHand = new HandValue();
+            HandValue dealerHand = new HandValue();
+            List<Card> playerCards = new ArrayList<>(List.of(BlackjackRules.deal(shoe, playerHand)));
+            List<Card> dealerCards = new ArrayList<>(List.of(BlackjackRules.deal(shoe, dealerHand)));
+            playerCards.add(BlackjackRules.deal(shoe, playerHand));
+            dealerCards.add(BlackjackRules.deal(shoe, dealerHand));
+            if (playerHand.getScore() <= 11) {
+                return Game.builder()
+                        .id("game-" + seed)
+                        .playerId("1")
+                        .playerName("Anna")
+                        .playerCards(playerCards)
+                        .dealerCards(dealerCards)
+                        .playerHand(playerHand)
+                        .dealerHand(dealerHand)
+                        .playerScore(playerHand.getScore())
+                        .dealerScore(dealerHand.getScore())
+                        .shoe(shoe)
+                        .status(GameStatus.IN_PROGRESS)
+                        .bet(10.0)
+                        .winnings(0.0)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build();
+            }
+        }
+    }
+
+    private static Game hit(Game game) {
+        game.getPlayerCards().add(BlackjackRules.deal(game.getShoe(), game.getPlayerHand()));
+        game.setPlayerScore(game.getPlayerHand().getScore());
+        game.setUpdatedAt(LocalDateTime.now());
+        return game;
+    }
+
+    private static Game stand(Game game) {
+        while (BlackjackRules.dealerMustHit(game.getDealerHand())) {
+            game.getDealerCards().add(BlackjackRules.deal(game.getShoe(), game.getDealerHand()));
+        }
+        game.setDealerScore(game.getDealerHand().getScore());
+        game.setStatus(BlackjackRules.settle(game.getPlayerHand(), game.getDealerHand()));
+        game.setWinnings(BlackjackRules.winnings(game.getStatus(), game.getBet()));
+        game.setUpdatedAt(LocalDateTime.now());
+        return game;
+    }
+}
@@ -0,0 +1,81 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameIndexesTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Test
+    void definitions_ShouldCoverPlayerHistoryStatusAndInProgressGames() {
+        // When
+        Map<String, Index> indexes = GameIndexes.definitions().stream()
+                .collect(Collectors.toMap(index -> index.getIndexOptions().getString("name"), index -> index));
+
+        // Then
+        assertEquals(new Document("playerId", 1).append("createdAt", -1), indexes.get("playerId_createdAt").getIndexKeys());
+        assertEquals(new Document("status", 1).append("updatedAt", 1), indexes.get("status_updatedAt").getIndexKeys());
+        assertEquals(new Document("status", "IN_PROGRESS"),
+                indexes.get("inProgress_updatedAt").getIndexOptions().get("partialFilterExpression"));
+    }
+
+    @Test
+    void report_ShouldListMissingUndeclaredAndLongUnusedIndexes() {
+        // Given
+        Set<String> declared = Set.of("playerId_createdAt", "status_updatedAt", "inProgress_updatedAt");
+        List<Document> stats = List.of(
+                stat("_id_", 500, NOW.minus(Duration.ofDays(30))),
+                stat("playerId_createdAt", 0, NOW.minus(Duration.ofDays(30))),
+                stat("status_updatedAt", 0, NOW.minus(Duration.ofHours(1))),
+                stat("legacy_playerName", 12, NOW.minus(Duration.ofDays(30))));
+
+        // When
+        GameIndexes.IndexReport report = GameIndexes.IndexReport.of(declared, stats, NOW);
+
+        // Then
+        assertEquals(List.of("inProgress_updatedAt"), report.missing());
+        assertEquals(List.of("legacy_playerName"), report.undeclared());
+        // status_updatedAt no té usos, però el comptador fa massa poc que corre per jutjar-lo
+        assertEquals(List.of("playerId_createdAt"), report.unused());
+        assertFalse(report.isClean());
+    }
+
+    @Test
+    void createIndexes_ShouldCreateEveryDeclaredIndexOnGames() {
+        // Given
+        try (InMemoryMongo mongo = new InMemoryMongo()) {
+            ReactiveMongoTemplate template = mongo.template("blackjack");
+            GameIndexes gameIndexes = new GameIndexes(template);
+
+            // When
+            gameIndexes.createIndexes().block();
+
+            // Then
+            Set<String> names = template.indexOps("games").getIndexInfo()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet())
+                    .block();
+            assertTrue(names.containsAll(Set.of("playerId_createdAt", "playerName_createdAt",
+                    "status_updatedAt", "inProgress_updatedAt")), names.toString());
+        }
+    }
+
+    private static Document stat(String name, long ops, Instant since) {
+        return new Document("name", name)
+                .append("accesses", new Document("ops", ops).append("since", Date.from(since)));
+    }
+}
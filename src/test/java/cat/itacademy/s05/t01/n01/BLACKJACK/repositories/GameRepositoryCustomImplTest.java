@@ -0,0 +1,101 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.MongoConfig;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRepositoryCustomImplTest {
+
+    private MongoMappingContext context;
+    private UpdateMapper updateMapper;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MongoConfig().mappingMongoConverter(context, conversions);
+        converter.afterPropertiesSet();
+        updateMapper = new UpdateMapper(converter);
+    }
+
+    @Test
+    void buildPlayUpdate_ShouldSetPlayStateAndIncrementVersion() {
+        // Given
+        List<Card> playerCards = List.of(Card.of(0), Card.of(13), Card.of(26));
+        Game game = Game.builder()
+                .id("game-1")
+                .playerCards(playerCards)
+                .dealerCards(List.of(Card.of(51)))
+                .playerHand(HandValue.of(playerCards))
+                .dealerHand(HandValue.of(List.of(Card.of(51))))
+                .shoe(Shoe.shuffled(1, new SplittableRandom(5)))
+                .playerScore(6)
+                .dealerScore(11)
+                .status(GameStatus.PLAYER_BUST)
+                .winnings(-10.0)
+                .updatedAt(LocalDateTime.now())
+                .version(4L)
+                .build();
+
+        // When
+        Document mapped = updateMapper.getMappedObject(
+                GameRepositoryCustomImpl.buildPlayUpdate(game).getUpdateObject(),
+                context.getPersistentEntity(Game.class));
+
+        // Then
+        Document set = mapped.get("$set", Document.class);
+        assertArrayEquals(new byte[]{0, 13, 26}, (byte[]) set.get("playerCards"));
+        assertArrayEquals(new byte[]{51}, (byte[]) set.get("dealerCards"));
+        assertEquals("PLAYER_BUST", set.get("status"));
+        assertEquals(3, set.get("playerHand", Document.class).get("cardCount"));
+        assertFalse(set.containsKey("playerId"));
+        assertFalse(set.containsKey("statsOutbox"));
+        assertEquals(new Document("version", 1), mapped.get("$inc"));
+    }
+
+    @Test
+    void buildPlayUpdate_WithStatsOutbox_ShouldSetItInTheSameUpdate() {
+        // Given
+        LocalDateTime settledAt = LocalDateTime.of(2025, 6, 1, 12, 0);
+        Game game = Game.builder()
+                .id("game-1")
+                .playerId("7")
+                .playerCards(List.of(Card.of(0), Card.of(12)))
+                .dealerCards(List.of(Card.of(51)))
+                .status(GameStatus.PLAYER_WIN)
+                .updatedAt(settledAt)
+                .build();
+        game.setStatsOutbox(SettledGame.of(game));
+
+        // When
+        Document set = updateMapper.getMappedObject(
+                GameRepositoryCustomImpl.buildPlayUpdate(game).getUpdateObject(),
+                context.getPersistentEntity(Game.class)).get("$set", Document.class);
+
+        // Then
+        Document outbox = set.get("statsOutbox", Document.class);
+        assertEquals("game-1", outbox.get("gameId"));
+        assertEquals("7", outbox.get("playerId"));
+        assertEquals("PLAYER_WIN", outbox.get("status"));
+    }
+}
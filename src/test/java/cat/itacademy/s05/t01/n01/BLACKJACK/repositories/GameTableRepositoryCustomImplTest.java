@@ -0,0 +1,80 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.MongoConfig;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.TableStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTableRepositoryCustomImplTest {
+
+    private MongoMappingContext context;
+    private UpdateMapper updateMapper;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MongoConfig().mappingMongoConverter(context, conversions);
+        converter.afterPropertiesSet();
+        updateMapper = new UpdateMapper(converter);
+    }
+
+    @Test
+    void buildRoundUpdate_ShouldWriteEverySeatAndTheDealerInOneUpdate() {
+        // Given
+        List<Card> seatCards = List.of(Card.of(0), Card.of(13));
+        GameTable table = GameTable.builder()
+                .id("table-1")
+                .seats(List.of(
+                        Seat.builder().playerId("1").playerCards(seatCards).playerHand(HandValue.of(seatCards))
+                                .status(GameStatus.PLAYER_WIN).bet(10.0).winnings(10.0).build(),
+                        Seat.builder().playerId("2").playerCards(List.of(Card.of(26), Card.of(39)))
+                                .status(GameStatus.DEALER_WIN).bet(5.0).winnings(-5.0).build()))
+                .dealerCards(List.of(Card.of(51), Card.of(50)))
+                .dealerHand(HandValue.of(List.of(Card.of(51), Card.of(50))))
+                .status(TableStatus.SETTLED)
+                .round(3)
+                .shoe(Shoe.shuffled(6, new SplittableRandom(5)))
+                .updatedAt(LocalDateTime.now())
+                .version(7L)
+                .build();
+
+        // When
+        Document mapped = updateMapper.getMappedObject(
+                GameTableRepositoryCustomImpl.buildRoundUpdate(table).getUpdateObject(),
+                context.getPersistentEntity(GameTable.class));
+
+        // Then: les mans dels seients també es desen com a codis de carta
+        Document set = mapped.get("$set", Document.class);
+        List<?> seats = set.get("seats", List.class);
+        assertEquals(2, seats.size());
+        Document first = (Document) seats.get(0);
+        assertArrayEquals(new byte[]{0, 13}, (byte[]) first.get("playerCards"));
+        assertEquals("PLAYER_WIN", first.get("status"));
+        assertArrayEquals(new byte[]{51, 50}, (byte[]) set.get("dealerCards"));
+        assertEquals("SETTLED", set.get("status"));
+        assertEquals(3, set.get("round"));
+        assertFalse(set.containsKey("createdAt"));
+        assertEquals(new Document("version", 1), mapped.get("$inc"));
+    }
+}
@@ -0,0 +1,46 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+// Base de dades H2 en memòria, en mode MySQL, amb el mateix blackjack.sql que l'aplicació
+public class H2TestDatabase implements AutoCloseable {
+
+    private final ConnectionPool connectionPool;
+    private final R2dbcEntityTemplate template;
+
+    public H2TestDatabase(String name) {
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(
+                        "r2dbc:h2:mem:///" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"))
+                .maxSize(16)
+                .build());
+        new ResourceDatabasePopulator(new ClassPathResource("blackjack.sql")).populate(connectionPool).block();
+        template = new R2dbcEntityTemplate(connectionPool);
+    }
+
+    public PlayerRepository playerRepository() {
+        return new R2dbcRepositoryFactory(template).getRepository(PlayerRepository.class);
+    }
+
+    public DatabaseClient databaseClient() {
+        return template.getDatabaseClient();
+    }
+
+    public TransactionalOperator transactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    @Override
+    public void close() {
+        databaseClient().sql("DROP ALL OBJECTS").then().block();
+        connectionPool.dispose();
+    }
+}
@@ -0,0 +1,56 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.MongoVersion;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.util.List;
+
+// Servidor Mongo en procés (mongo-java-server) per a tests i la prova de càrrega
+public class InMemoryMongo implements AutoCloseable {
+
+    // El driver 5.x demana com a mínim el protocol de MongoDB 4.2 (wire version 8); les ordres que fa
+    // l'aplicació (insert, find, findAndModify, delete) no han canviat des de la 4.0 que anuncia el servidor
+    private static final MongoVersion MONGO_4_2 = new MongoVersion() {
+        @Override
+        public List<Integer> getVersionArray() {
+            return List.of(4, 2, 0);
+        }
+
+        @Override
+        public int getWireVersion() {
+            return 8;
+        }
+    };
+
+    private final MongoServer server;
+    private final int port;
+    private MongoClient client;
+
+    public InMemoryMongo() {
+        server = new MongoServer(new MemoryBackend().version(MONGO_4_2));
+        port = server.bind().getPort();
+    }
+
+    public String uri(String database) {
+        return "mongodb://localhost:" + port + "/" + database;
+    }
+
+    public ReactiveMongoTemplate template(String database) {
+        if (client == null) {
+            client = MongoClients.create("mongodb://localhost:" + port);
+        }
+        return new ReactiveMongoTemplate(client, database);
+    }
+
+    @Override
+    public void close() {
+        if (client != null) {
+            client.close();
+        }
+        server.shutdownNow();
+    }
+}
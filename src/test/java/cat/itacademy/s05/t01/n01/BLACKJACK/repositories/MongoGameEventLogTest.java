@@ -0,0 +1,102 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameLogEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class MongoGameEventLogTest {
+
+    private InMemoryMongo mongo;
+    private MongoGameEventLog eventLog;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        eventLog = new MongoGameEventLog(mongo.template("blackjack"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void append_WithTakenSeq_ShouldReturnFalseAndKeepTheFirstEvent() {
+        // Given
+        StepVerifier.create(eventLog.append(List.of(hit("game-1", 1, Card.of(0)))))
+                .expectNext(true)
+                .verifyComplete();
+
+        // When & Then
+        StepVerifier.create(eventLog.append(List.of(hit("game-1", 1, Card.of(1)))))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(eventLog.eventsAfter("game-1", 0))
+                .expectNextMatches(event -> event.getPlayerCards().equals(List.of(Card.of(0))))
+                .verifyComplete();
+    }
+
+    @Test
+    void eventsAfter_ShouldReturnOnlyThatGameInSeqOrder() {
+        // Given
+        eventLog.append(List.of(hit("game-1", 1, Card.of(0)), hit("game-10", 1, Card.of(1)),
+                hit("game-1", 2, Card.of(2)), hit("game-1", 10, Card.of(3)))).block();
+
+        // When & Then
+        StepVerifier.create(eventLog.eventsAfter("game-1", 1).map(GameLogEvent::getSeq))
+                .expectNext(2L, 10L)
+                .verifyComplete();
+    }
+
+    @Test
+    void saveSnapshot_ShouldKeepOnlyTheLatestPerGame() {
+        // Given
+        eventLog.saveSnapshot(snapshot("game-1", 10)).block();
+
+        // When
+        eventLog.saveSnapshot(snapshot("game-1", 20)).block();
+
+        // Then
+        StepVerifier.create(eventLog.latestSnapshot("game-1"))
+                .expectNextMatches(snapshot -> snapshot.getSeq() == 20
+                        && snapshot.getShoe().getPosition() == 4
+                        && snapshot.getPlayerCards().size() == 2)
+                .verifyComplete();
+    }
+
+    private static GameLogEvent hit(String gameId, long seq, Card card) {
+        return GameLogEvent.builder()
+                .id(GameLogEvent.idOf(gameId, seq))
+                .gameId(gameId)
+                .seq(seq)
+                .type(GameLogEvent.Type.PLAY)
+                .at(LocalDateTime.now())
+                .playerCards(List.of(card))
+                .build();
+    }
+
+    private static GameLogEvent snapshot(String gameId, long seq) {
+        Shoe shoe = Shoe.shuffled(1, new SplittableRandom(seq));
+        return GameLogEvent.builder()
+                .id(GameLogEvent.idOf(gameId, seq))
+                .gameId(gameId)
+                .seq(seq)
+                .type(GameLogEvent.Type.SNAPSHOT)
+                .at(LocalDateTime.now())
+                .playerCards(List.of(shoe.draw(), shoe.draw()))
+                .dealerCards(List.of(shoe.draw(), shoe.draw()))
+                .shoe(shoe)
+                .status(GameStatus.IN_PROGRESS)
+                .winnings(0.0)
+                .build();
+    }
+}
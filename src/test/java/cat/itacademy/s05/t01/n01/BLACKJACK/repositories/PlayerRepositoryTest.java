@@ -0,0 +1,90 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.repositories;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerRepositoryTest {
+
+    private H2TestDatabase database;
+    private PlayerRepository playerRepository;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("player-repository");
+        playerRepository = database.playerRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void findRankingPageAfter_WhenWalkingAllPages_ShouldMatchFullRanking() {
+        // Given: molts empats de win_rate i total_winnings perquè decideixi l'id
+        createPlayers(47);
+        List<Player> ranking = playerRepository.findAllOrderByRanking().collectList().block();
+
+        // When
+        List<Player> paged = new ArrayList<>(playerRepository.findRankingPage(10).collectList().block());
+        while (paged.size() < ranking.size()) {
+            Player last = paged.get(paged.size() - 1);
+            List<Player> page = playerRepository.findRankingPageAfter(
+                    last.getWinRate(), last.getTotalWinnings(), last.getId(), 10).collectList().block();
+            assertFalse(page.isEmpty());
+            paged.addAll(page);
+        }
+
+        // Then
+        assertEquals(ids(ranking), ids(paged));
+    }
+
+    @Test
+    void findRankingPageBeforeAndCount_ShouldAgreeWithFullRanking() {
+        // Given
+        createPlayers(30);
+        List<Player> ranking = playerRepository.findAllOrderByRanking().collectList().block();
+
+        for (int position = 0; position < ranking.size(); position++) {
+            Player player = ranking.get(position);
+
+            // When
+            long ahead = playerRepository.countPlayersAhead(
+                    player.getWinRate(), player.getTotalWinnings(), player.getId()).block();
+            List<Player> before = playerRepository.findRankingPageBefore(
+                    player.getWinRate(), player.getTotalWinnings(), player.getId(), 3).collectList().block();
+
+            // Then
+            assertEquals(position, ahead);
+            List<Player> expected = new ArrayList<>(ranking.subList(Math.max(0, position - 3), position));
+            assertEquals(ids(expected.reversed()), ids(before));
+        }
+    }
+
+    private void createPlayers(int count) {
+        Flux.range(0, count)
+                .concatMap(i -> playerRepository.save(Player.builder()
+                        .name("Player" + i)
+                        .gamesPlayed(4)
+                        .gamesWon(i % 3)
+                        .winRate((i % 3) * 25.0)
+                        .totalWinnings((i % 2) * 1.5)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build()))
+                .blockLast();
+    }
+
+    private List<Long> ids(List<Player> players) {
+        return players.stream().map(Player::getId).toList();
+    }
+}
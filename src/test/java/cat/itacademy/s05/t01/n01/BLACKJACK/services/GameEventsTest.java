@@ -0,0 +1,115 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.GameEvent;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameMark;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.TableStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventsTest {
+
+    private final GameEvents events = new GameEvents(new SimpleMeterRegistry());
+
+    @Test
+    void changes_AfterBustingHit_ShouldSendOnlyTheNewCardScoreAndResult() {
+        // Given
+        Game game = game(GameStatus.IN_PROGRESS, Card.of(Card.Suit.HEARTS, Card.Rank.KING),
+                Card.of(Card.Suit.HEARTS, Card.Rank.SIX));
+        GameMark before = events.mark(game);
+
+        // When
+        game.getPlayerCards().add(Card.of(Card.Suit.SPADES, Card.Rank.NINE));
+        game.setPlayerScore(25);
+        game.setStatus(GameStatus.PLAYER_BUST);
+        game.setWinnings(-10.0);
+        List<GameEvent> changes = GameEvents.changes(before, game);
+
+        // Then
+        assertEquals(List.of(GameEvent.Type.CARD_DEALT, GameEvent.Type.SCORE_CHANGED, GameEvent.Type.SETTLED),
+                changes.stream().map(GameEvent::getType).toList());
+        assertEquals(Card.of(Card.Suit.SPADES, Card.Rank.NINE), changes.get(0).getCard());
+        assertEquals(GameEvent.Hand.PLAYER, changes.get(0).getHand());
+        assertEquals(25, changes.get(1).getScore());
+        assertEquals("PLAYER_BUST", changes.get(2).getStatus());
+        assertNull(changes.get(0).getSeat());
+    }
+
+    @Test
+    void changes_OnNewTableRound_ShouldResendEveryHand() {
+        // Given
+        GameTable table = GameTable.builder()
+                .id("table-1")
+                .round(1)
+                .status(TableStatus.SETTLED)
+                .seats(List.of(Seat.builder().playerCards(cards(3)).status(GameStatus.DEALER_WIN).build()))
+                .dealerCards(cards(2))
+                .build();
+        GameEvents.TableMark before = events.mark(table);
+
+        // When: mà nova amb dues cartes per al seient i dues per a la casa
+        table.setRound(2);
+        table.setStatus(TableStatus.IN_PROGRESS);
+        table.getSeats().get(0).setPlayerCards(cards(2));
+        table.getSeats().get(0).setStatus(GameStatus.IN_PROGRESS);
+        table.setDealerCards(cards(2));
+        List<GameEvent> changes = GameEvents.changes(before, table);
+
+        // Then
+        assertEquals(List.of(GameEvent.Type.ROUND_STARTED,
+                        GameEvent.Type.CARD_DEALT, GameEvent.Type.CARD_DEALT, GameEvent.Type.SCORE_CHANGED,
+                        GameEvent.Type.CARD_DEALT, GameEvent.Type.CARD_DEALT, GameEvent.Type.SCORE_CHANGED),
+                changes.stream().map(GameEvent::getType).toList());
+        assertEquals(0, changes.get(1).getSeat());
+        assertEquals(GameEvent.Hand.DEALER, changes.get(4).getHand());
+    }
+
+    @Test
+    void publish_ShouldReachWatchersAndForgetGamesNobodyWatches() {
+        // Given
+        Game game = game(GameStatus.IN_PROGRESS, Card.of(Card.Suit.HEARTS, Card.Rank.TWO),
+                Card.of(Card.Suit.HEARTS, Card.Rank.THREE));
+        GameMark before = events.mark(game);
+        game.getPlayerCards().add(Card.of(Card.Suit.CLUBS, Card.Rank.FOUR));
+        game.setPlayerScore(9);
+
+        // When & Then
+        StepVerifier.create(events.watch("game-1"))
+                .then(() -> assertTrue(events.isWatched("game-1")))
+                .then(() -> events.publish(before, game))
+                .assertNext(event -> assertEquals(GameEvent.Type.CARD_DEALT, event.getType()))
+                .assertNext(event -> assertEquals(9, event.getScore()))
+                .thenCancel()
+                .verify();
+
+        assertFalse(events.isWatched("game-1"));
+    }
+
+    private Game game(GameStatus status, Card... playerCards) {
+        return Game.builder()
+                .id("game-1")
+                .playerCards(new ArrayList<>(List.of(playerCards)))
+                .dealerCards(new ArrayList<>(cards(2)))
+                .status(status)
+                .bet(10.0)
+                .build();
+    }
+
+    private List<Card> cards(int count) {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cards.add(Card.of(i));
+        }
+        return cards;
+    }
+}
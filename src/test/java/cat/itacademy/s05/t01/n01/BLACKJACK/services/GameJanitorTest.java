@@ -0,0 +1,160 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.GameCacheProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.JanitorProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.ArchivedGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameArchiveRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameStore;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameJanitorTest {
+
+    private InMemoryMongo mongo;
+    private ReactiveMongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private GameJanitor janitor;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.template("blackjack");
+        meterRegistry = new SimpleMeterRegistry();
+
+        JanitorProperties properties = new JanitorProperties();
+        properties.setAbandonedAfter(Duration.ofHours(1));
+        properties.setArchiveAfter(Duration.ofDays(1));
+        properties.setBatchSize(2);
+        janitor = new GameJanitor(new GameArchiveRepository(mongoTemplate),
+                new GameCache(mock(GameStore.class), new GameCacheProperties(), meterRegistry),
+                properties,
+                new BlackjackMetrics(meterRegistry, ObservationRegistry.NOOP),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongo.close();
+    }
+
+    @Test
+    void run_ShouldExpireOnlyIdleInProgressGames() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Flux.just(
+                        game("idle-1", GameStatus.IN_PROGRESS, now.minusHours(3)),
+                        game("idle-2", GameStatus.IN_PROGRESS, now.minusHours(2)),
+                        game("idle-3", GameStatus.IN_PROGRESS, now.minusHours(2)),
+                        game("active", GameStatus.IN_PROGRESS, now.minusMinutes(5)),
+                        game("settled", GameStatus.PLAYER_WIN, now.minusHours(3)))
+                .concatMap(mongoTemplate::insert)
+                .blockLast();
+
+        // When & Then
+        StepVerifier.create(janitor.run())
+                .expectNext(new GameJanitor.Result(3, 0))
+                .verifyComplete();
+        StepVerifier.create(mongoTemplate.findAll(Game.class).map(Game::getId).sort())
+                .expectNext("active", "settled")
+                .verifyComplete();
+        assertEquals(3.0, meterRegistry.get("blackjack.janitor.games").tag("action", "expired").counter().count());
+    }
+
+    @Test
+    void run_ShouldMoveOldSettledGamesToTheArchiveButWaitForPendingOutbox() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Game pending = game("pending", GameStatus.DEALER_WIN, now.minusDays(3));
+        pending.setStatsOutbox(SettledGame.of(pending));
+        Flux.just(
+                        game("old-1", GameStatus.PLAYER_WIN, now.minusDays(5)),
+                        game("old-2", GameStatus.DEALER_WIN, now.minusDays(4)),
+                        game("old-3", GameStatus.PUSH, now.minusDays(2)),
+                        pending,
+                        game("recent", GameStatus.PLAYER_WIN, now.minusHours(2)))
+                .concatMap(mongoTemplate::insert)
+                .blockLast();
+
+        // When & Then
+        StepVerifier.create(janitor.run())
+                .expectNext(new GameJanitor.Result(0, 3))
+                .verifyComplete();
+        StepVerifier.create(mongoTemplate.findAll(Game.class).map(Game::getId).sort())
+                .expectNext("pending", "recent")
+                .verifyComplete();
+        StepVerifier.create(mongoTemplate.findAll(ArchivedGame.class).sort((a, b) -> a.getId().compareTo(b.getId())))
+                .expectNextMatches(archived -> archived.getId().equals("old-1")
+                        && archived.getStatus() == GameStatus.PLAYER_WIN
+                        && archived.getPlayerCards().equals(List.of(Card.of(0), Card.of(12))))
+                .expectNextMatches(archived -> archived.getId().equals("old-2"))
+                .expectNextMatches(archived -> archived.getId().equals("old-3"))
+                .verifyComplete();
+        assertEquals(3.0, meterRegistry.get("blackjack.janitor.games").tag("action", "archived").counter().count());
+    }
+
+    @Test
+    void expireAbandoned_ShouldNotReadTheNextBatchBeforeTheCurrentOneIsDeleted() {
+        // Given: el primer esborrat no acaba fins que el test ho diu
+        GameArchiveRepository repository = mock(GameArchiveRepository.class);
+        AtomicLong requested = new AtomicLong();
+        Sinks.One<Long> firstDelete = Sinks.one();
+        when(repository.findAbandonedIds(any(), anyInt())).thenReturn(Flux.range(0, 10)
+                .map(i -> "idle-" + i)
+                .doOnRequest(requested::addAndGet));
+        when(repository.deleteAbandoned(anyList(), any()))
+                .thenReturn(firstDelete.asMono())
+                .thenReturn(Mono.just(2L));
+        JanitorProperties properties = new JanitorProperties();
+        properties.setBatchSize(2);
+        janitor = new GameJanitor(repository,
+                new GameCache(mock(GameStore.class), new GameCacheProperties(), meterRegistry),
+                properties,
+                new BlackjackMetrics(meterRegistry, ObservationRegistry.NOOP),
+                meterRegistry);
+
+        // When & Then: amb un lot pendent, el cursor només ha llegit aquest lot
+        StepVerifier.create(janitor.expireAbandoned(LocalDateTime.now()))
+                .then(() -> assertEquals(2, requested.get()))
+                .then(() -> firstDelete.tryEmitValue(2L))
+                .expectNext(10L)
+                .verifyComplete();
+    }
+
+    private static Game game(String id, GameStatus status, LocalDateTime updatedAt) {
+        return Game.builder()
+                .id(id)
+                .playerId("player-1")
+                .playerName("Janitor")
+                .playerCards(List.of(Card.of(0), Card.of(12)))
+                .dealerCards(List.of(Card.of(5)))
+                .status(status)
+                .createdAt(updatedAt.minusMinutes(1))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,399 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.GameCacheProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsOutboxProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateGameRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlaySequenceRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameConflictException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameNotFoundException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.InvalidGameException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.DocumentGameStore;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameServiceImplementTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private PlayerService playerService;
+
+    private GameCache gameCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GameEvents events;
+
+    private GameServiceImplement gameService;
+
+    private Game testGame;
+
+    @BeforeEach
+    void setUp() {
+        GameStore gameStore = new DocumentGameStore(gameRepository);
+        gameCache = new GameCache(gameStore, new GameCacheProperties(), new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        events = new GameEvents(new SimpleMeterRegistry());
+        gameService = new GameServiceImplement(gameStore, playerService, new DeckServiceImplement(1), gameCache,
+                new BlackjackMetrics(meterRegistry, observationRegistry), events,
+                new StatsOutboxRelay(null, playerService, new StatsOutboxProperties(), new SimpleMeterRegistry()));
+
+        testGame = Game.builder()
+                .id("game-123")
+                .playerId("1")
+                .playerName("TestPlayer")
+                .playerCards(new ArrayList<>(List.of(Card.of(Card.Suit.HEARTS, Card.Rank.TWO),
+                        Card.of(Card.Suit.SPADES, Card.Rank.THREE))))
+                .dealerCards(new ArrayList<>(List.of(Card.of(Card.Suit.DIAMONDS, Card.Rank.NINE),
+                        Card.of(Card.Suit.CLUBS, Card.Rank.SEVEN))))
+                .playerScore(5)
+                .dealerScore(16)
+                .status(GameStatus.IN_PROGRESS)
+                .bet(10.0)
+                .winnings(0.0)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .version(3L)
+                .build();
+    }
+
+    @Test
+    void playGame_Hit_ShouldApplyCardWithSingleConditionalUpdate() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // When & Then
+        StepVerifier.create(gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.HIT)))
+                .expectNextMatches(game ->
+                        game.getPlayerCards().size() == 3 &&
+                                game.getStatus() == GameStatus.IN_PROGRESS &&
+                                game.getPlayerScore() == game.getPlayerHand().getScore())
+                .verifyComplete();
+
+        verify(gameRepository, times(1)).updateIfInProgress(argThat(game -> game.getVersion() == 3L));
+        verify(gameRepository, never()).save(any(Game.class));
+        verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void playGame_Stand_ShouldSettleAndUpdatePlayerStats() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(playerService.updatePlayerStats(eq(1L), any(Game.class))).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.STAND)))
+                .expectNextMatches(game ->
+                        game.getStatus() != GameStatus.IN_PROGRESS &&
+                                game.getDealerScore() >= 17)
+                .verifyComplete();
+
+        verify(playerService, times(1)).updatePlayerStats(eq(1L), any(Game.class));
+    }
+
+    @Test
+    void playGame_Stand_WithOutbox_ShouldSaveOutboxWithTheResultAndSkipMySql() {
+        // Given
+        StatsOutboxProperties outboxProperties = new StatsOutboxProperties();
+        outboxProperties.setEnabled(true);
+        GameStore gameStore = new DocumentGameStore(gameRepository);
+        gameService = new GameServiceImplement(gameStore, playerService, new DeckServiceImplement(1),
+                new GameCache(gameStore, new GameCacheProperties(), new SimpleMeterRegistry()),
+                new BlackjackMetrics(meterRegistry, ObservationRegistry.NOOP), events,
+                new StatsOutboxRelay(null, playerService, outboxProperties, new SimpleMeterRegistry()));
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // When & Then
+        StepVerifier.create(gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.STAND)))
+                .expectNextMatches(game -> game.getStatus() != GameStatus.IN_PROGRESS)
+                .verifyComplete();
+
+        verify(gameRepository).updateIfInProgress(argThat(game -> game.getStatsOutbox() != null
+                && game.getStatsOutbox().getGameId().equals("game-123")
+                && game.getStatsOutbox().getStatus() == game.getStatus()));
+        verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void playGame_Stand_ShouldRecordPlayTimerAndOutcome() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(playerService.updatePlayerStats(eq(1L), any(Game.class))).thenReturn(Mono.empty());
+
+        // When
+        Game settled = gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.STAND)).block();
+
+        // Then
+        assertEquals(1, meterRegistry.get("blackjack.game.play").tag("action", "stand").timer().count());
+        assertEquals(1.0, meterRegistry.get("blackjack.games.settled")
+                .tag("status", settled.getStatus().name()).counter().count());
+        assertEquals(1.0, meterRegistry.get("blackjack.games.settled").counters().stream()
+                .mapToDouble(Counter::count).sum());
+    }
+
+    @Test
+    void playGame_WhenConcurrentUpdateWins_ShouldFailWithConflict() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class))).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.STAND)))
+                .expectError(GameConflictException.class)
+                .verify();
+
+        verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void playGame_WhenGameIsFinished_ShouldFailWithoutWriting() {
+        // Given
+        testGame.setStatus(GameStatus.DEALER_WIN);
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+
+        // When & Then
+        StepVerifier.create(gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.HIT)))
+                .expectError(InvalidGameException.class)
+                .verify();
+
+        verify(gameRepository, never()).updateIfInProgress(any(Game.class));
+    }
+
+    @Test
+    void playGame_WhenGameDoesNotExist_ShouldFailWithNotFound() {
+        // Given
+        when(gameRepository.findById("missing")).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(gameService.playGame("missing", playRequest(PlayRequest.PlayAction.HIT)))
+                .expectError(GameNotFoundException.class)
+                .verify();
+    }
+
+    private PlayRequest playRequest(PlayRequest.PlayAction action) {
+        PlayRequest request = new PlayRequest();
+        request.setAction(action);
+        return request;
+    }
+
+    @Test
+    void getGame_WhenCalledTwice_ShouldReadMongoOnceAndReturnCopies() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+
+        // When
+        Game first = gameService.getGame("game-123").block();
+        first.getPlayerCards().clear();
+        Game second = gameService.getGame("game-123").block();
+
+        // Then
+        verify(gameRepository, times(1)).findById("game-123");
+        assertEquals(2, second.getPlayerCards().size());
+    }
+
+    @Test
+    void playGame_WhenGameFinishes_ShouldEvictItFromCache() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(playerService.updatePlayerStats(eq(1L), any(Game.class))).thenReturn(Mono.empty());
+
+        // When
+        gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.STAND)).block();
+        gameService.getGame("game-123").block();
+
+        // Then: la segona lectura torna a Mongo
+        verify(gameRepository, times(2)).findById("game-123");
+    }
+
+    @Test
+    void playGame_Hit_ShouldServeNextPlayFromCache() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> {
+                    Game saved = invocation.getArgument(0);
+                    saved.setVersion(saved.getVersion() + 1);
+                    return Mono.just(saved);
+                });
+
+        // When
+        gameService.playGame("game-123", playRequest(PlayRequest.PlayAction.HIT)).block();
+        Game cached = gameService.getGame("game-123").block();
+
+        // Then
+        verify(gameRepository, times(1)).findById("game-123");
+        assertEquals(3, cached.getPlayerCards().size());
+        assertEquals(4L, cached.getVersion());
+    }
+
+    @Test
+    void deleteGame_ShouldEvictItFromCache() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.deleteById("game-123")).thenReturn(Mono.empty());
+        gameService.getGame("game-123").block();
+
+        // When
+        StepVerifier.create(gameService.deleteGame("game-123"))
+                .verifyComplete();
+        gameService.getGame("game-123").block();
+
+        // Then
+        verify(gameRepository, times(2)).findById("game-123");
+    }
+
+    @Test
+    void createGames_ShouldResolvePlayersOnceAndInsertAllGames() {
+        // Given
+        Player joan = Player.builder().id(1L).name("Joan").build();
+        Player anna = Player.builder().id(2L).name("Anna").build();
+        when(playerService.findOrCreatePlayers(List.of("Joan", "Anna", "Joan")))
+                .thenReturn(Mono.just(Map.of("Joan", joan, "Anna", anna)));
+        when(gameRepository.insert(anyList()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<Game>>getArgument(0)));
+
+        // When & Then
+        StepVerifier.create(gameService.createGames(List.of(
+                        createRequest("Joan"), createRequest("Anna"), createRequest("Joan"))))
+                .expectNextMatches(game -> game.getPlayerId().equals("1") && game.getPlayerCards().size() == 2)
+                .expectNextMatches(game -> game.getPlayerId().equals("2"))
+                .expectNextMatches(game -> game.getPlayerId().equals("1"))
+                .verifyComplete();
+
+        verify(gameRepository, times(1)).insert(anyList());
+        verify(gameRepository, never()).save(any(Game.class));
+    }
+
+    @Test
+    void createGames_WithBlankPlayerName_ShouldFailWithoutWriting() {
+        // When & Then
+        StepVerifier.create(gameService.createGames(List.of(createRequest("Joan"), createRequest(" "))))
+                .expectError(InvalidGameException.class)
+                .verify();
+
+        verifyNoInteractions(playerService, gameRepository);
+    }
+
+    private CreateGameRequest createRequest(String playerName) {
+        CreateGameRequest request = new CreateGameRequest();
+        request.setPlayerName(playerName);
+        return request;
+    }
+
+    @Test
+    void playSequence_WithActions_ShouldReturnEachStateAndSaveOnce() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(playerService.updatePlayerStats(eq(1L), any(Game.class))).thenReturn(Mono.empty());
+
+        // When & Then: 2+3 més una carta no pot passar de 21
+        StepVerifier.create(gameService.playSequence("game-123",
+                        sequence(List.of(PlayRequest.PlayAction.HIT, PlayRequest.PlayAction.STAND), null)))
+                .expectNextMatches(game -> game.getPlayerCards().size() == 3 && game.getStatus() == GameStatus.IN_PROGRESS)
+                .expectNextMatches(game -> game.getStatus() != GameStatus.IN_PROGRESS)
+                .verifyComplete();
+
+        verify(gameRepository, times(1)).findById("game-123");
+        verify(gameRepository, times(1)).updateIfInProgress(any(Game.class));
+        verify(playerService, times(1)).updatePlayerStats(eq(1L), any(Game.class));
+    }
+
+    @Test
+    void playSequence_WithHitUntil_ShouldHitUntilTargetThenStand() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.updateIfInProgress(any(Game.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(playerService.updatePlayerStats(eq(1L), any(Game.class))).thenReturn(Mono.empty());
+
+        // When
+        List<Game> states = gameService.playSequence("game-123", sequence(null, 15)).collectList().block();
+
+        // Then
+        Game last = states.get(states.size() - 1);
+        assertTrue(last.getStatus() != GameStatus.IN_PROGRESS);
+        for (Game state : states.subList(0, states.size() - 1)) {
+            assertEquals(GameStatus.IN_PROGRESS, state.getStatus());
+            assertTrue(state.getPlayerScore() < 21);
+        }
+        if (last.getStatus() != GameStatus.PLAYER_BUST) {
+            assertTrue(last.getPlayerScore() >= 15);
+        }
+        verify(gameRepository, times(1)).updateIfInProgress(any(Game.class));
+    }
+
+    @Test
+    void playSequence_WhenActionFollowsEndOfGame_ShouldFailWithoutWriting() {
+        // Given
+        when(gameRepository.findById("game-123")).thenReturn(Mono.just(testGame));
+
+        // When & Then
+        StepVerifier.create(gameService.playSequence("game-123",
+                        sequence(List.of(PlayRequest.PlayAction.STAND, PlayRequest.PlayAction.HIT), null)))
+                .expectError(InvalidGameException.class)
+                .verify();
+
+        verify(gameRepository, never()).updateIfInProgress(any(Game.class));
+        verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void playSequence_WithActionsAndPolicy_ShouldFail() {
+        StepVerifier.create(gameService.playSequence("game-123",
+                        sequence(List.of(PlayRequest.PlayAction.HIT), 17)))
+                .expectError(InvalidGameException.class)
+                .verify();
+
+        verifyNoInteractions(gameRepository);
+    }
+
+    private PlaySequenceRequest sequence(List<PlayRequest.PlayAction> actions, Integer hitUntil) {
+        PlaySequenceRequest request = new PlaySequenceRequest();
+        request.setActions(actions);
+        request.setHitUntil(hitUntil);
+        return request;
+    }
+}
@@ -1,27 +1,43 @@
 package cat.itacademy.s05.t01.n01.BLACKJACK.services;
 
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.PlayerCacheProperties;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
 import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.BlackjackException;
 import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.PlayerNotFoundException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.StatsDelta;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerBatchRepository;
 import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerStatsBatchRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.SettledGameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -32,7 +48,24 @@ class PlayerServiceImplementTest {
     @Mock
     private PlayerRepository playerRepository;
 
-    @InjectMocks
+    @Mock
+    private PlayerStatsWriteBehind statsWriteBehind;
+
+    @Mock
+    private RankingIndex rankingIndex;
+
+    @Mock
+    private PlayerBatchRepository playerBatchRepository;
+
+    @Mock
+    private PlayerStatsBatchRepository statsBatchRepository;
+
+    @Mock
+    private SettledGameRepository settledGameRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     private PlayerServiceImplement playerService;
 
     private Player testPlayer;
@@ -40,6 +73,10 @@ class PlayerServiceImplementTest {
 
     @BeforeEach
     void setUp() {
+        playerService = new PlayerServiceImplement(playerRepository, statsWriteBehind, rankingIndex,
+                new PlayerNameCache(new PlayerCacheProperties(), new SimpleMeterRegistry()), playerBatchRepository, statsBatchRepository,
+                settledGameRepository, transactionalOperator, new BlackjackMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+
         testPlayer = Player.builder()
                 .id(1L)
                 .name("TestPlayer")
@@ -110,9 +147,10 @@ class PlayerServiceImplementTest {
                 .build();
 
         when(playerRepository.findByName("NewPlayer"))
-                .thenReturn(Mono.empty());
-        when(playerRepository.save(any(Player.class)))
+                .thenReturn(Mono.empty())
                 .thenReturn(Mono.just(newPlayer));
+        when(playerRepository.insertIfAbsent("NewPlayer"))
+                .thenReturn(Mono.just(1));
 
         // When & Then
         StepVerifier.create(playerService.findOrCreatePlayer("NewPlayer"))
@@ -124,8 +162,126 @@ class PlayerServiceImplementTest {
                                 player.getWinRate() == 0.0)
                 .verifyComplete();
 
-        verify(playerRepository, times(1)).findByName("NewPlayer");
-        verify(playerRepository, times(1)).save(any(Player.class));
+        verify(playerRepository, times(1)).insertIfAbsent("NewPlayer");
+        verify(playerRepository, never()).save(any(Player.class));
+        verify(rankingIndex, times(1)).upsert(newPlayer);
+    }
+
+    @Test
+    void findOrCreatePlayer_WhenPlayerIsCached_ShouldNotQueryDatabase() {
+        // Given
+        when(playerRepository.findByName("TestPlayer")).thenReturn(Mono.just(testPlayer));
+
+        // When
+        playerService.findOrCreatePlayer("TestPlayer").block();
+
+        // Then
+        StepVerifier.create(playerService.findOrCreatePlayer("TestPlayer"))
+                .expectNextMatches(player -> player.getId().equals(1L))
+                .verifyComplete();
+        verify(playerRepository, times(1)).findByName("TestPlayer");
+    }
+
+    @Test
+    void findOrCreatePlayer_WhenLookupsAreConcurrent_ShouldShareOneQuery() {
+        // Given
+        when(playerRepository.findByName("TestPlayer"))
+                .thenReturn(Mono.just(testPlayer).delayElement(Duration.ofMillis(100)));
+
+        // When
+        List<Player> players = Flux.range(0, 20)
+                .flatMap(i -> playerService.findOrCreatePlayer("TestPlayer"))
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(20, players.size());
+        verify(playerRepository, times(1)).findByName("TestPlayer");
+    }
+
+    @Test
+    void findOrCreatePlayers_ShouldSkipCachedNamesAndInsertOnlyNewOnes() {
+        // Given
+        Player newPlayer = Player.builder().id(2L).name("NewPlayer").build();
+        when(playerRepository.findByName("TestPlayer")).thenReturn(Mono.just(testPlayer));
+        when(playerRepository.findByNameIn(List.of("NewPlayer")))
+                .thenReturn(Flux.empty())
+                .thenReturn(Flux.just(newPlayer));
+        when(playerBatchRepository.insertAllIfAbsent(List.of("NewPlayer"))).thenReturn(Mono.just(1L));
+        playerService.findOrCreatePlayer("TestPlayer").block();
+
+        // When & Then
+        StepVerifier.create(playerService.findOrCreatePlayers(List.of("TestPlayer", "NewPlayer", "TestPlayer")))
+                .expectNextMatches(players -> players.size() == 2 &&
+                        players.get("TestPlayer").getId().equals(1L) &&
+                        players.get("NewPlayer").getId().equals(2L))
+                .verifyComplete();
+
+        verify(playerBatchRepository, times(1)).insertAllIfAbsent(List.of("NewPlayer"));
+        verify(rankingIndex, times(1)).upsert(newPlayer);
+    }
+
+    @Test
+    void findOrCreatePlayers_WithNamesDifferingOnlyInCase_ShouldMapEveryRequestedNameToTheStoredPlayer() {
+        // Given: MySQL (utf8mb4_0900_ai_ci) torna la fila "anna" quan es demana "Anna"
+        Player anna = Player.builder().id(3L).name("anna").build();
+        Player newPlayer = Player.builder().id(4L).name("Joan").build();
+        when(playerRepository.findByNameIn(List.of("Anna", "ANNA", "Joan", "joan"))).thenReturn(Flux.just(anna));
+        when(playerBatchRepository.insertAllIfAbsent(List.of("Joan"))).thenReturn(Mono.just(1L));
+        when(playerRepository.findByNameIn(List.of("Joan"))).thenReturn(Flux.just(newPlayer));
+
+        // When & Then
+        StepVerifier.create(playerService.findOrCreatePlayers(List.of("Anna", "ANNA", "Joan", "joan")))
+                .expectNextMatches(players -> players.size() == 4 &&
+                        players.get("Anna").getId().equals(3L) &&
+                        players.get("ANNA").getId().equals(3L) &&
+                        players.get("Joan").getId().equals(4L) &&
+                        players.get("joan").getId().equals(4L))
+                .verifyComplete();
+
+        verify(playerBatchRepository, times(1)).insertAllIfAbsent(List.of("Joan"));
+    }
+
+    @Test
+    void nameKey_ShouldIgnoreCaseAndAccents() {
+        // When & Then
+        assertEquals(PlayerServiceImplement.nameKey("anna"), PlayerServiceImplement.nameKey("Ànna"));
+        assertEquals(PlayerServiceImplement.nameKey("JOSE"), PlayerServiceImplement.nameKey("José"));
+        assertNotEquals(PlayerServiceImplement.nameKey("Anna"), PlayerServiceImplement.nameKey("Ana"));
+    }
+
+    @Test
+    void updatePlayerName_ShouldInvalidateCachedName() {
+        // Given
+        Player renamed = testPlayer.toBuilder().name("Renamed").build();
+        when(playerRepository.findByName("TestPlayer")).thenReturn(Mono.just(testPlayer));
+        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer.toBuilder().build()));
+        when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(renamed));
+        playerService.findOrCreatePlayer("TestPlayer").block();
+
+        // When
+        playerService.updatePlayerName(1L, "Renamed").block();
+        playerService.findOrCreatePlayer("TestPlayer").block();
+
+        // Then: el nom antic es torna a buscar a MySQL
+        verify(playerRepository, times(2)).findByName("TestPlayer");
+    }
+
+    @Test
+    void updatePlayerName_AfterLookupByCaseVariant_ShouldInvalidateThatVariant() {
+        // Given
+        Player renamed = testPlayer.toBuilder().name("Renamed").build();
+        when(playerRepository.findByName("TESTPLAYER")).thenReturn(Mono.just(testPlayer));
+        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer.toBuilder().build()));
+        when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(renamed));
+        playerService.findOrCreatePlayer("TESTPLAYER").block();
+
+        // When
+        playerService.updatePlayerName(1L, "Renamed").block();
+        playerService.findOrCreatePlayer("TESTPLAYER").block();
+
+        // Then: la variant en majúscules no es queda amb el jugador reanomenat
+        verify(playerRepository, times(2)).findByName("TESTPLAYER");
     }
 
     @Test
@@ -174,30 +330,16 @@ class PlayerServiceImplementTest {
     @Test
     void updatePlayerStats_WhenPlayerWins_ShouldUpdateStatsCorrectly() {
         // Given
-        Player updatedPlayer = Player.builder()
-                .id(1L)
-                .name("TestPlayer")
-                .gamesPlayed(6)
-                .gamesWon(4)
-                .totalWinnings(5.5)
-                .winRate(66.67)
-                .createdAt(testPlayer.getCreatedAt())
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        when(playerRepository.findById(1L))
-                .thenReturn(Mono.just(testPlayer));
-        when(playerRepository.save(any(Player.class)))
-                .thenReturn(Mono.just(updatedPlayer));
+        when(playerRepository.incrementStats(1L, 1, 1.0))
+                .thenReturn(Mono.just(1));
 
         // When & Then
         StepVerifier.create(playerService.updatePlayerStats(1L, testGame))
                 .verifyComplete();
 
-        verify(playerRepository, times(1)).findById(1L);
-        verify(playerRepository, times(1)).save(argThat(player ->
-                player.getGamesPlayed() == 6 &&
-                        player.getGamesWon() == 4));
+        verify(playerRepository, times(1)).incrementStats(1L, 1, 1.0);
+        verify(playerRepository, never()).findById(anyLong());
+        verify(playerRepository, never()).save(any(Player.class));
     }
 
     @Test
@@ -218,47 +360,78 @@ class PlayerServiceImplementTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        Player updatedPlayer = Player.builder()
-                .id(1L)
-                .name("TestPlayer")
-                .gamesPlayed(6)
-                .gamesWon(3)
-                .totalWinnings(4.5)
-                .winRate(50.0)
-                .createdAt(testPlayer.getCreatedAt())
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        when(playerRepository.findById(1L))
-                .thenReturn(Mono.just(testPlayer));
-        when(playerRepository.save(any(Player.class)))
-                .thenReturn(Mono.just(updatedPlayer));
+        when(playerRepository.incrementStats(1L, 0, 0.0))
+                .thenReturn(Mono.just(1));
 
         // When & Then
         StepVerifier.create(playerService.updatePlayerStats(1L, losingGame))
                 .verifyComplete();
 
-        verify(playerRepository, times(1)).findById(1L);
-        verify(playerRepository, times(1)).save(argThat(player ->
-                player.getGamesPlayed() == 6 &&
-                        player.getGamesWon() == 3));
+        verify(playerRepository, times(1)).incrementStats(1L, 0, 0.0);
+        verify(playerRepository, never()).save(any(Player.class));
     }
 
     @Test
     void updatePlayerStats_WhenPlayerNotFound_ShouldThrowException() {
         // Given
-        when(playerRepository.findById(999L))
-                .thenReturn(Mono.empty());
+        when(playerRepository.incrementStats(eq(999L), anyInt(), anyDouble()))
+                .thenReturn(Mono.just(0));
 
         // When & Then
         StepVerifier.create(playerService.updatePlayerStats(999L, testGame))
                 .expectError(PlayerNotFoundException.class)
                 .verify();
 
-        verify(playerRepository, times(1)).findById(999L);
+        verify(playerRepository, times(1)).incrementStats(999L, 1, 1.0);
         verify(playerRepository, never()).save(any(Player.class));
     }
 
+    @Test
+    void updatePlayersStats_ShouldMergeSeatsPerPlayerIntoOneBatchUpdate() {
+        // Given: el jugador 1 té dos seients a la taula
+        List<Seat> seats = List.of(
+                Seat.builder().playerId("1").status(GameStatus.PLAYER_WIN).build(),
+                Seat.builder().playerId("2").status(GameStatus.DEALER_WIN).build(),
+                Seat.builder().playerId("1").status(GameStatus.PLAYER_BLACKJACK).build());
+        when(statsBatchRepository.applyDeltas(anyMap())).thenReturn(Mono.just(2L));
+
+        // When & Then
+        StepVerifier.create(playerService.updatePlayersStats(seats))
+                .verifyComplete();
+
+        verify(statsBatchRepository, times(1)).applyDeltas(Map.of(
+                1L, new StatsDelta(2, 2, 2.5),
+                2L, new StatsDelta(1, 0, 0.0)));
+        verify(rankingIndex).applyDelta(1L, new StatsDelta(2, 2, 2.5));
+        verify(rankingIndex).applyDelta(2L, new StatsDelta(1, 0, 0.0));
+        verify(playerRepository, never()).incrementStats(anyLong(), anyInt(), anyDouble());
+    }
+
+    @Test
+    void applySettledGames_ShouldSkipGamesAlreadyRecordedAndApplyTheRestInOneTransaction() {
+        // Given: game-1 ja es va comptar abans que el relay pogués buidar l'outbox
+        List<SettledGame> games = List.of(
+                new SettledGame("game-1", "1", GameStatus.PLAYER_WIN, LocalDateTime.now()),
+                new SettledGame("game-2", "1", GameStatus.DEALER_BUST, LocalDateTime.now()),
+                new SettledGame("game-3", "2", GameStatus.PUSH, LocalDateTime.now()));
+        when(settledGameRepository.findRecorded(List.of("game-1", "game-2", "game-3"))).thenReturn(Flux.just("game-1"));
+        when(settledGameRepository.insertAll(anyList())).thenReturn(Mono.just(2L));
+        when(statsBatchRepository.applyDeltas(anyMap())).thenReturn(Mono.just(2L));
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When & Then
+        StepVerifier.create(playerService.applySettledGames(games))
+                .expectNext(2)
+                .verifyComplete();
+
+        verify(settledGameRepository).insertAll(List.of(games.get(1), games.get(2)));
+        verify(statsBatchRepository).applyDeltas(Map.of(
+                1L, new StatsDelta(1, 1, 1.0),
+                2L, new StatsDelta(1, 0, 0.0)));
+        verify(rankingIndex).applyDelta(1L, new StatsDelta(1, 1, 1.0));
+        verify(transactionalOperator).transactional(ArgumentMatchers.<Mono<Object>>any());
+    }
+
     @Test
     void getRanking_ShouldReturnPlayersOrderedByRanking() {
         // Given
@@ -302,4 +475,140 @@ class PlayerServiceImplementTest {
 
         verify(playerRepository, times(1)).findAllOrderByRanking();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRanking_WhenIndexIsReady_ShouldNotQueryDatabase() {
+        // Given
+        when(rankingIndex.isReady()).thenReturn(true);
+        when(rankingIndex.top(Integer.MAX_VALUE)).thenReturn(List.of(testPlayer));
+
+        // When & Then
+        StepVerifier.create(playerService.getRanking())
+                .expectNext(testPlayer)
+                .verifyComplete();
+
+        verify(playerRepository, never()).findAllOrderByRanking();
+    }
+
+    @Test
+    void getTopPlayers_WhenIndexIsReady_ShouldReturnTopN() {
+        // Given
+        when(rankingIndex.isReady()).thenReturn(true);
+        when(rankingIndex.top(1)).thenReturn(List.of(testPlayer));
+
+        // When & Then
+        StepVerifier.create(playerService.getTopPlayers(1))
+                .expectNext(testPlayer)
+                .verifyComplete();
+
+        verify(playerRepository, never()).findAllOrderByRanking();
+    }
+
+    @Test
+    void getTopPlayers_WithNonPositiveLimit_ShouldThrowException() {
+        StepVerifier.create(playerService.getTopPlayers(0))
+                .expectError(BlackjackException.class)
+                .verify();
+    }
+
+    @Test
+    void getPlayerRank_WhenIndexIsNotReady_ShouldCountPlayersAhead() {
+        // Given
+        when(rankingIndex.isReady()).thenReturn(false);
+        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
+        when(playerRepository.countPlayersAhead(testPlayer.getWinRate(), testPlayer.getTotalWinnings(), 1L))
+                .thenReturn(Mono.just(4L));
+
+        // When & Then
+        StepVerifier.create(playerService.getPlayerRank(1L))
+                .expectNextMatches(ranked -> ranked.getRank() == 5 && ranked.getPlayer().getId().equals(1L))
+                .verifyComplete();
+
+        verify(playerRepository, never()).findAllOrderByRanking();
+    }
+
+    @Test
+    void getTopPlayers_WhenIndexIsNotReady_ShouldQueryOnePage() {
+        // Given
+        when(rankingIndex.isReady()).thenReturn(false);
+        when(playerRepository.findRankingPage(10)).thenReturn(Flux.just(testPlayer));
+
+        // When & Then
+        StepVerifier.create(playerService.getTopPlayers(10))
+                .expectNext(testPlayer)
+                .verifyComplete();
+
+        verify(playerRepository, never()).findAllOrderByRanking();
+    }
+
+    @Test
+    void getRankingAfter_WhenIndexIsNotReady_ShouldContinueFromCursorPlayer() {
+        // Given
+        Player next = Player.builder().id(2L).name("Next").winRate(10.0).build();
+        when(rankingIndex.isReady()).thenReturn(false);
+        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
+        when(playerRepository.findRankingPageAfter(testPlayer.getWinRate(), testPlayer.getTotalWinnings(), 1L, 20))
+                .thenReturn(Flux.just(next));
+
+        // When & Then
+        StepVerifier.create(playerService.getRankingAfter(1L, 20))
+                .expectNext(next)
+                .verifyComplete();
+    }
+
+    @Test
+    void getRankingAfter_WhenCursorPlayerDoesNotExist_ShouldThrowException() {
+        // Given
+        when(rankingIndex.isReady()).thenReturn(true);
+        when(rankingIndex.pageAfter(999L, 20)).thenReturn(Optional.empty());
+
+        // When & Then
+        StepVerifier.create(playerService.getRankingAfter(999L, 20))
+                .expectError(PlayerNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getRankingAround_WhenIndexIsNotReady_ShouldReturnPlayersAheadThenBehind() {
+        // Given
+        Player first = Player.builder().id(3L).name("First").winRate(90.0).build();
+        Player second = Player.builder().id(4L).name("Second").winRate(80.0).build();
+        Player behind = Player.builder().id(5L).name("Behind").winRate(10.0).build();
+        when(rankingIndex.isReady()).thenReturn(false);
+        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
+        // La consulta retorna primer el més proper
+        when(playerRepository.findRankingPageBefore(testPlayer.getWinRate(), testPlayer.getTotalWinnings(), 1L, 2))
+                .thenReturn(Flux.just(second, first));
+        when(playerRepository.findRankingPageAfter(testPlayer.getWinRate(), testPlayer.getTotalWinnings(), 1L, 2))
+                .thenReturn(Flux.just(behind));
+
+        // When & Then
+        StepVerifier.create(playerService.getRankingAround(1L, 5))
+                .expectNext(first, second, testPlayer, behind)
+                .verifyComplete();
+    }
+
+    @Test
+    void getPlayerRank_WhenPlayerNotRanked_ShouldThrowException() {
+        // Given
+        when(rankingIndex.isReady()).thenReturn(true);
+        when(rankingIndex.rankOf(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        StepVerifier.create(playerService.getPlayerRank(999L))
+                .expectError(PlayerNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void updatePlayerStats_WhenUpdated_ShouldApplyDeltaToRankingIndex() {
+        // Given
+        when(playerRepository.incrementStats(1L, 1, 1.0)).thenReturn(Mono.just(1));
+
+        // When & Then
+        StepVerifier.create(playerService.updatePlayerStats(1L, testGame))
+                .verifyComplete();
+
+        verify(rankingIndex, times(1)).applyDelta(1L, new StatsDelta(1, 1, 1.0));
+    }
+}
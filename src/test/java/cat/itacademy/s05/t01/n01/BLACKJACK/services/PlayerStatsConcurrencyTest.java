@@ -0,0 +1,140 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.PlayerCacheProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsWriteBehindProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.H2TestDatabase;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerBatchRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerStatsBatchRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.SettledGameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlayerStatsConcurrencyTest {
+
+    private static final int GAMES = 10_000;
+
+    private H2TestDatabase database;
+    private PlayerRepository playerRepository;
+    private PlayerServiceImplement playerService;
+    private RankingIndex rankingIndex;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("stats-concurrency");
+        playerRepository = database.playerRepository();
+
+        rankingIndex = new RankingIndex(playerRepository);
+
+        // Sense write-behind: cada partida fa el seu UPDATE atòmic
+        PlayerStatsWriteBehind statsWriteBehind = new PlayerStatsWriteBehind(
+                new PlayerStatsBatchRepository(database.databaseClient()),
+                new StatsWriteBehindProperties(), rankingIndex, new SimpleMeterRegistry());
+        playerService = new PlayerServiceImplement(playerRepository, statsWriteBehind, rankingIndex,
+                new PlayerNameCache(new PlayerCacheProperties(), new SimpleMeterRegistry()),
+                new PlayerBatchRepository(database.databaseClient()),
+                new PlayerStatsBatchRepository(database.databaseClient()),
+                new SettledGameRepository(database.databaseClient()), database.transactionalOperator(),
+                new BlackjackMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void updatePlayerStats_WhenTenThousandGamesSettleInParallel_ShouldNotLoseUpdates() {
+        // Given
+        Player player = playerRepository.save(Player.builder()
+                .name("Concurrent")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()).block();
+        rankingIndex.reload().block();
+
+        // When: una de cada dues partides guanyada, totes en paral·lel
+        Flux.range(0, GAMES)
+                .flatMap(i -> playerService.updatePlayerStats(player.getId(),
+                        settledGame(i % 2 == 0 ? GameStatus.PLAYER_WIN : GameStatus.DEALER_WIN)), 64)
+                .then()
+                .block(Duration.ofMinutes(2));
+
+        // Then
+        Player updated = playerRepository.findById(player.getId()).block();
+        assertEquals(GAMES, updated.getGamesPlayed());
+        assertEquals(GAMES / 2, updated.getGamesWon());
+        assertEquals(GAMES / 2.0, updated.getTotalWinnings(), 0.001);
+        assertEquals(50.0, updated.getWinRate(), 0.001);
+
+        // L'índex del rànquing ha aplicat els mateixos increments
+        Player ranked = rankingIndex.rankOf(player.getId()).orElseThrow().getPlayer();
+        assertEquals(updated.getGamesPlayed(), ranked.getGamesPlayed());
+        assertEquals(updated.getGamesWon(), ranked.getGamesWon());
+        assertEquals(updated.getWinRate(), ranked.getWinRate(), 0.001);
+    }
+
+    @Test
+    void findOrCreatePlayer_WhenFirstGamesRaceOnSameName_ShouldCreateOnePlayer() {
+        // When: sense cache, cada petició arriba a l'INSERT
+        PlayerServiceImplement uncachedService = new PlayerServiceImplement(playerRepository, null, rankingIndex,
+                new PlayerNameCache(disabledPlayerCache(), new SimpleMeterRegistry()),
+                new PlayerBatchRepository(database.databaseClient()),
+                new PlayerStatsBatchRepository(database.databaseClient()),
+                new SettledGameRepository(database.databaseClient()), database.transactionalOperator(),
+                new BlackjackMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+        List<Player> players = Flux.range(0, 50)
+                .flatMap(i -> uncachedService.findOrCreatePlayer("Newcomer"), 50)
+                .collectList()
+                .block(Duration.ofMinutes(1));
+
+        // Then
+        assertEquals(50, players.size());
+        assertEquals(1, players.stream().map(Player::getId).distinct().count());
+        assertEquals(1L, playerRepository.count().block());
+    }
+
+    @Test
+    void findOrCreatePlayers_WithNewAndExistingNames_ShouldResolveAllInOneBatch() {
+        // Given
+        Player existing = playerService.findOrCreatePlayer("Existing").block();
+
+        // When
+        Map<String, Player> players = playerService.findOrCreatePlayers(
+                List.of("Existing", "New1", "New2", "New1")).block();
+
+        // Then
+        assertEquals(3, players.size());
+        assertEquals(existing.getId(), players.get("Existing").getId());
+        assertEquals(3L, playerRepository.count().block());
+        assertEquals("New2", playerRepository.findById(players.get("New2").getId()).block().getName());
+    }
+
+    private PlayerCacheProperties disabledPlayerCache() {
+        PlayerCacheProperties properties = new PlayerCacheProperties();
+        properties.setEnabled(false);
+        return properties;
+    }
+
+    private Game settledGame(GameStatus status) {
+        return Game.builder()
+                .id("game")
+                .status(status)
+                .bet(10.0)
+                .build();
+    }
+}
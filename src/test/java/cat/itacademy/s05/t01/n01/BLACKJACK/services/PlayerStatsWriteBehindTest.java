@@ -0,0 +1,108 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsWriteBehindProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.StatsDelta;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.H2TestDatabase;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerStatsBatchRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStatsWriteBehindTest {
+
+    private H2TestDatabase database;
+    private PlayerRepository playerRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private StatsWriteBehindProperties properties;
+    private PlayerStatsWriteBehind statsWriteBehind;
+
+    @BeforeEach
+    void setUp() {
+        database = new H2TestDatabase("stats-write-behind");
+        playerRepository = database.playerRepository();
+        meterRegistry = new SimpleMeterRegistry();
+
+        properties = new StatsWriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(50);
+        properties.setMaxPendingPlayers(100);
+        properties.setFlushInterval(Duration.ofHours(1));
+
+        statsWriteBehind = new PlayerStatsWriteBehind(
+                new PlayerStatsBatchRepository(database.databaseClient()), properties,
+                new RankingIndex(playerRepository), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void record_WhenHotPlayersSettleManyGames_ShouldWriteFewBatches() {
+        // Given
+        List<Player> players = createPlayers(5);
+
+        // When: 10.000 partides repartides entre 5 jugadors
+        Flux.range(0, 10_000)
+                .flatMap(i -> statsWriteBehind.record(players.get(i % 5).getId(),
+                        StatsDelta.ofGame(i % 4 == 0, i % 4 == 0 ? 1.0 : 0.0)), 64)
+                .then(statsWriteBehind.flushAll())
+                .block(Duration.ofMinutes(1));
+
+        // Then
+        for (Player player : players) {
+            Player updated = playerRepository.findById(player.getId()).block();
+            assertEquals(2_000, updated.getGamesPlayed());
+            assertEquals(500, updated.getGamesWon());
+            assertEquals(500.0, updated.getTotalWinnings(), 0.001);
+            assertEquals(25.0, updated.getWinRate(), 0.001);
+        }
+
+        DistributionSummary batchSize = meterRegistry.get("blackjack.stats.write_behind.batch.size").summary();
+        assertTrue(batchSize.count() < 100, "Expected a handful of batches, got " + batchSize.count());
+    }
+
+    @Test
+    void record_WhenPendingQueueIsFull_ShouldWaitForFlushInsteadOfGrowing() {
+        // Given: més jugadors que places a la cua
+        List<Player> players = createPlayers(300);
+
+        // When
+        Flux.fromIterable(players)
+                .concatMap(player -> statsWriteBehind.record(player.getId(), StatsDelta.ofGame(true, 1.5)))
+                .then(statsWriteBehind.flushAll())
+                .block(Duration.ofMinutes(1));
+
+        // Then
+        assertEquals(0.0, meterRegistry.get("blackjack.stats.write_behind.pending").gauge().value());
+        for (Player player : players) {
+            Player updated = playerRepository.findById(player.getId()).block();
+            assertEquals(1, updated.getGamesPlayed());
+            assertEquals(1.5, updated.getTotalWinnings(), 0.001);
+            assertEquals(100.0, updated.getWinRate(), 0.001);
+        }
+    }
+
+    private List<Player> createPlayers(int count) {
+        return Flux.range(0, count)
+                .concatMap(i -> playerRepository.save(Player.builder()
+                        .name("Player" + i)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build()))
+                .collectList()
+                .block();
+    }
+}
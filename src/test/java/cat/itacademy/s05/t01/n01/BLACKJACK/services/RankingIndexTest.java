@@ -0,0 +1,165 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.StatsDelta;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RankingIndexTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    private RankingIndex rankingIndex;
+
+    @BeforeEach
+    void setUp() {
+        rankingIndex = new RankingIndex(playerRepository);
+    }
+
+    @Test
+    void reload_ShouldBecomeReadyWithAllPlayers() {
+        // Given
+        when(playerRepository.findAllOrderByRanking()).thenReturn(Flux.just(player(1L, 50.0, 10.0), player(2L, 80.0, 5.0)));
+
+        // When
+        rankingIndex.reload().block();
+
+        // Then
+        assertTrue(rankingIndex.isReady());
+        assertEquals(2, rankingIndex.size());
+        assertEquals(List.of(2L, 1L), rankingIndex.top(10).stream().map(Player::getId).toList());
+        assertEquals(2, rankingIndex.rankOf(1L).orElseThrow().getRank());
+        assertTrue(rankingIndex.rankOf(99L).isEmpty());
+    }
+
+    @Test
+    void applyDelta_ShouldMatchFullySortedRanking() {
+        // Given
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Long, Player> expected = new HashMap<>();
+        List<Player> initial = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            Player player = player(id, 0.0, 0.0);
+            initial.add(player);
+            expected.put(id, player);
+        }
+        when(playerRepository.findAllOrderByRanking()).thenReturn(Flux.fromIterable(initial));
+        rankingIndex.reload().block();
+
+        // When: 20.000 partides repartides a l'atzar
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(500);
+            boolean won = random.nextBoolean();
+            StatsDelta delta = StatsDelta.ofGame(won, won ? 1.5 : -1.0);
+            rankingIndex.applyDelta(id, delta);
+
+            Player current = expected.get(id);
+            int played = current.getGamesPlayed() + 1;
+            int gamesWon = current.getGamesWon() + delta.gamesWon();
+            expected.put(id, current.toBuilder()
+                    .gamesPlayed(played)
+                    .gamesWon(gamesWon)
+                    .totalWinnings(Math.round((current.getTotalWinnings() + delta.winnings()) * 100.0) / 100.0)
+                    .winRate(Math.round((double) gamesWon / played * 100.0 * 100.0) / 100.0)
+                    .build());
+        }
+
+        // Then
+        List<Player> sorted = new ArrayList<>(expected.values());
+        sorted.sort(RankingTree.RANKING_ORDER);
+
+        assertEquals(sorted.stream().map(Player::getId).toList(),
+                rankingIndex.top(Integer.MAX_VALUE).stream().map(Player::getId).toList());
+        assertEquals(sorted.subList(0, 10).stream().map(Player::getId).toList(),
+                rankingIndex.top(10).stream().map(Player::getId).toList());
+        for (int position = 0; position < sorted.size(); position++) {
+            assertEquals(position + 1, rankingIndex.rankOf(sorted.get(position).getId()).orElseThrow().getRank());
+        }
+    }
+
+    @Test
+    void upsertAndRemove_ShouldKeepRanksConsistent() {
+        // Given
+        when(playerRepository.findAllOrderByRanking()).thenReturn(Flux.empty());
+        rankingIndex.reload().block();
+
+        // When
+        rankingIndex.upsert(player(1L, 60.0, 0.0));
+        rankingIndex.upsert(player(2L, 60.0, 20.0));
+        rankingIndex.upsert(player(3L, 40.0, 0.0));
+        rankingIndex.upsert(player(1L, 90.0, 0.0));
+        rankingIndex.remove(2L);
+
+        // Then
+        assertEquals(List.of(1L, 3L), rankingIndex.top(10).stream().map(Player::getId).toList());
+        assertEquals(2, rankingIndex.rankOf(3L).orElseThrow().getRank());
+        assertTrue(rankingIndex.rankOf(2L).isEmpty());
+    }
+
+    @Test
+    void pageAfterAndAround_ShouldSliceRankingAroundPlayer() {
+        // Given: 1 > 2 > 3 > 4 > 5
+        when(playerRepository.findAllOrderByRanking()).thenReturn(Flux.range(1, 5)
+                .map(i -> player((long) i, 100.0 - i, 0.0)));
+        rankingIndex.reload().block();
+
+        // When & Then
+        assertEquals(List.of(3L, 4L), ids(rankingIndex.pageAfter(2L, 2).orElseThrow()));
+        assertEquals(List.of(), ids(rankingIndex.pageAfter(5L, 2).orElseThrow()));
+        assertEquals(List.of(2L, 3L, 4L), ids(rankingIndex.around(3L, 1, 1).orElseThrow()));
+        assertEquals(List.of(1L, 2L, 3L), ids(rankingIndex.around(1L, 2, 2).orElseThrow()));
+        assertTrue(rankingIndex.pageAfter(99L, 2).isEmpty());
+        // Límits propers a Integer.MAX_VALUE no desborden el final del tram
+        assertEquals(List.of(3L, 4L, 5L), ids(rankingIndex.pageAfter(2L, Integer.MAX_VALUE).orElseThrow()));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                ids(rankingIndex.around(3L, Integer.MAX_VALUE, Integer.MAX_VALUE).orElseThrow()));
+    }
+
+    @Test
+    void changes_WhenPlayerMoves_ShouldPublishPreviousAndNewRank() {
+        // Given: 1 > 2 > 3
+        when(playerRepository.findAllOrderByRanking()).thenReturn(Flux.range(1, 3)
+                .map(i -> player((long) i, 100.0 - i, 0.0)));
+        rankingIndex.reload().block();
+
+        // When & Then
+        StepVerifier.create(rankingIndex.changes().take(2))
+                .then(() -> rankingIndex.upsert(player(3L, 100.0, 0.0)))
+                .expectNextMatches(change -> change.getPreviousRank() == 3 && change.getRank() == 1)
+                .then(() -> rankingIndex.remove(2L))
+                .expectNextMatches(change -> change.getPreviousRank() == 3 && change.getRank() == null)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private List<Long> ids(List<Player> players) {
+        return players.stream().map(Player::getId).toList();
+    }
+
+    private Player player(Long id, double winRate, double totalWinnings) {
+        return Player.builder()
+                .id(id)
+                .name("Player" + id)
+                .winRate(winRate)
+                .totalWinnings(totalWinnings)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.PlayerCacheProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsOutboxProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.StatsWriteBehindProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Game;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.SettledGame;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.H2TestDatabase;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.InMemoryMongo;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerBatchRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.PlayerStatsBatchRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.SettledGameRepository;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.StatsOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+class StatsOutboxRelayTest {
+
+    private InMemoryMongo mongo;
+    private H2TestDatabase database;
+    private ReactiveMongoTemplate mongoTemplate;
+    private PlayerRepository playerRepository;
+    private StatsOutboxRepository outboxRepository;
+    private StatsOutboxRelay relay;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        mongo = new InMemoryMongo();
+        database = new H2TestDatabase("stats-outbox");
+        mongoTemplate = mongo.template("blackjack");
+        playerRepository = database.playerRepository();
+        outboxRepository = new StatsOutboxRepository(mongoTemplate);
+
+        RankingIndex rankingIndex = new RankingIndex(playerRepository);
+        PlayerServiceImplement playerService = new PlayerServiceImplement(playerRepository,
+                new PlayerStatsWriteBehind(new PlayerStatsBatchRepository(database.databaseClient()),
+                        new StatsWriteBehindProperties(), rankingIndex, new SimpleMeterRegistry()),
+                rankingIndex,
+                new PlayerNameCache(new PlayerCacheProperties(), new SimpleMeterRegistry()),
+                new PlayerBatchRepository(database.databaseClient()),
+                new PlayerStatsBatchRepository(database.databaseClient()),
+                new SettledGameRepository(database.databaseClient()), database.transactionalOperator(),
+                new BlackjackMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+
+        StatsOutboxProperties properties = new StatsOutboxProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(2);
+        relay = new StatsOutboxRelay(outboxRepository, playerService, properties, new SimpleMeterRegistry());
+
+        player = playerRepository.save(Player.builder()
+                .name("Outbox")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()).block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+        mongo.close();
+    }
+
+    @Test
+    void relayAll_ShouldApplyEveryPendingGameInBatchesAndEmptyTheOutbox() {
+        // Given
+        Flux.just(settledGame("game-1", GameStatus.PLAYER_WIN), settledGame("game-2", GameStatus.DEALER_WIN),
+                        settledGame("game-3", GameStatus.PLAYER_BLACKJACK))
+                .concatMap(mongoTemplate::insert)
+                .blockLast();
+
+        // When
+        int relayed = relay.relayAll().block();
+
+        // Then
+        assertEquals(3, relayed);
+        Player updated = playerRepository.findById(player.getId()).block();
+        assertEquals(3, updated.getGamesPlayed());
+        assertEquals(2, updated.getGamesWon());
+        assertEquals(2.5, updated.getTotalWinnings(), 0.001);
+        assertEquals(0L, outboxRepository.findPending(10).count().block());
+    }
+
+    @Test
+    void relayAll_WhenOutboxIsSentAgain_ShouldNotCountTheGameTwice() {
+        // Given: el relay va caure després del commit a MySQL i abans de buidar l'outbox
+        Game game = mongoTemplate.insert(settledGame("game-1", GameStatus.PLAYER_WIN)).block();
+        relay.relayAll().block();
+        mongoTemplate.updateFirst(Query.query(where("id").is("game-1")),
+                new Update().set("statsOutbox", SettledGame.of(game)), Game.class).block();
+
+        // When
+        int relayed = relay.relayAll().block();
+
+        // Then
+        assertEquals(1, relayed);
+        Player updated = playerRepository.findById(player.getId()).block();
+        assertEquals(1, updated.getGamesPlayed());
+        assertEquals(1, updated.getGamesWon());
+        assertEquals(0L, outboxRepository.findPending(10).count().block());
+    }
+
+    private Game settledGame(String id, GameStatus status) {
+        Game game = Game.builder()
+                .id(id)
+                .playerId(player.getId().toString())
+                .playerName(player.getName())
+                .status(status)
+                .bet(10.0)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        game.setStatsOutbox(SettledGame.of(game));
+        return game;
+    }
+}
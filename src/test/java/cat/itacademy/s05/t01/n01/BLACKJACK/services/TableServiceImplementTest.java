@@ -0,0 +1,282 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.TableProperties;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateGameRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.CreateTableRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.dto.PlayRequest;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.GameConflictException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.exceptions.InvalidGameException;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Card;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.GameTable;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.HandValue;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Player;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Seat;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.Shoe;
+import cat.itacademy.s05.t01.n01.BLACKJACK.model.TableStatus;
+import cat.itacademy.s05.t01.n01.BLACKJACK.repositories.GameTableRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TableServiceImplementTest {
+
+    @Mock
+    private GameTableRepository tableRepository;
+
+    @Mock
+    private PlayerService playerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TableServiceImplement tableService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tableService = new TableServiceImplement(tableRepository, playerService, new DeckServiceImplement(1),
+                new TableProperties(), new BlackjackMetrics(meterRegistry, ObservationRegistry.NOOP),
+                new GameEvents(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void createTable_ShouldDealEverySeatFromOneShoeWithOneSave() {
+        // Given
+        CreateTableRequest request = new CreateTableRequest();
+        request.setSeats(List.of(seatRequest("Anna"), seatRequest("Biel"), seatRequest("Carla")));
+        when(playerService.findOrCreatePlayers(anyList())).thenReturn(Mono.just(Map.of(
+                "Anna", player(1L, "Anna"), "Biel", player(2L, "Biel"), "Carla", player(3L, "Carla"))));
+        when(tableRepository.save(any(GameTable.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(playerService.updatePlayersStats(anyCollection())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(tableService.createTable(request))
+                .assertNext(table -> {
+                    assertEquals(3, table.getSeats().size());
+                    assertEquals("Biel", table.getSeats().get(1).getPlayerName());
+                    table.getSeats().forEach(seat -> assertEquals(2, seat.getPlayerCards().size()));
+                    assertEquals(2, table.getDealerCards().size());
+                    assertEquals(1, table.getRound());
+                    // Quatre mans de dues cartes d'un shoe de 6 baralles; la casa encara no ha jugat
+                    assertEquals(6 * Card.DECK_SIZE - 8, table.getShoe().remaining());
+                })
+                .verifyComplete();
+
+        verify(tableRepository, times(1)).save(any(GameTable.class));
+    }
+
+    @Test
+    void createTable_WithTooManySeats_ShouldFail() {
+        // Given
+        CreateTableRequest request = new CreateTableRequest();
+        request.setSeats(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            request.getSeats().add(seatRequest("Player" + i));
+        }
+
+        // When & Then
+        StepVerifier.create(tableService.createTable(request))
+                .expectError(InvalidGameException.class)
+                .verify();
+
+        verifyNoInteractions(playerService, tableRepository);
+    }
+
+    @Test
+    void playSeat_WhenOtherSeatsStillPlaying_ShouldNotPlayDealerNorUpdateStats() {
+        // Given
+        GameTable table = tableWithDealerOn16(Card.of(Card.Suit.CLUBS, Card.Rank.SIX));
+        table.getSeats().get(2).setStatus(GameStatus.IN_PROGRESS);
+        table.getSeats().get(2).setStanding(false);
+        when(tableRepository.findById("table-1")).thenReturn(Mono.just(table));
+        when(tableRepository.updateIfUnchanged(any(GameTable.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // When & Then
+        StepVerifier.create(tableService.playSeat("table-1", 0, play(PlayRequest.PlayAction.STAND)))
+                .assertNext(saved -> {
+                    assertEquals(TableStatus.IN_PROGRESS, saved.getStatus());
+                    assertTrue(saved.getSeats().get(0).isStanding());
+                    assertEquals(2, saved.getDealerCards().size());
+                })
+                .verifyComplete();
+
+        verify(tableRepository, times(1)).updateIfUnchanged(any(GameTable.class));
+        verify(playerService, never()).updatePlayersStats(anyCollection());
+    }
+
+    @Test
+    void playSeat_LastSeatStands_ShouldPlayDealerOnceAndSettleEverySeatInOneWrite() {
+        // Given: la casa té 16 i la següent carta del shoe és un sis
+        GameTable table = tableWithDealerOn16(Card.of(Card.Suit.CLUBS, Card.Rank.SIX));
+        when(tableRepository.findById("table-1")).thenReturn(Mono.just(table));
+        when(tableRepository.updateIfUnchanged(any(GameTable.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(playerService.updatePlayersStats(anyCollection())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(tableService.playSeat("table-1", 0, play(PlayRequest.PlayAction.STAND)))
+                .assertNext(saved -> {
+                    assertEquals(TableStatus.SETTLED, saved.getStatus());
+                    assertEquals(22, saved.getDealerScore());
+                    assertEquals(3, saved.getDealerCards().size());
+                    assertEquals(GameStatus.DEALER_BUST, saved.getSeats().get(0).getStatus());
+                    assertEquals(10.0, saved.getSeats().get(0).getWinnings());
+                    assertEquals(GameStatus.PLAYER_BUST, saved.getSeats().get(1).getStatus());
+                    assertEquals(GameStatus.DEALER_BUST, saved.getSeats().get(2).getStatus());
+                })
+                .verifyComplete();
+
+        verify(tableRepository, times(1)).updateIfUnchanged(any(GameTable.class));
+        verify(playerService, times(1)).updatePlayersStats(table.getSeats());
+        assertEquals(2.0, meterRegistry.get("blackjack.games.settled").tag("status", "DEALER_BUST").counter().count());
+    }
+
+    @Test
+    void playSeat_OnFinishedSeat_ShouldFailWithoutSaving() {
+        // Given
+        GameTable table = tableWithDealerOn16(Card.of(Card.Suit.CLUBS, Card.Rank.SIX));
+        when(tableRepository.findById("table-1")).thenReturn(Mono.just(table));
+
+        // When & Then
+        StepVerifier.create(tableService.playSeat("table-1", 1, play(PlayRequest.PlayAction.HIT)))
+                .expectError(InvalidGameException.class)
+                .verify();
+        StepVerifier.create(tableService.playSeat("table-1", 5, play(PlayRequest.PlayAction.HIT)))
+                .expectError(InvalidGameException.class)
+                .verify();
+
+        verify(tableRepository, never()).updateIfUnchanged(any(GameTable.class));
+    }
+
+    @Test
+    void playSeat_WhenTableChangedMeanwhile_ShouldFailWithConflict() {
+        // Given
+        GameTable table = tableWithDealerOn16(Card.of(Card.Suit.CLUBS, Card.Rank.SIX));
+        when(tableRepository.findById("table-1")).thenReturn(Mono.just(table));
+        when(tableRepository.updateIfUnchanged(any(GameTable.class))).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(tableService.playSeat("table-1", 0, play(PlayRequest.PlayAction.STAND)))
+                .expectError(GameConflictException.class)
+                .verify();
+
+        verify(playerService, never()).updatePlayersStats(anyCollection());
+    }
+
+    @Test
+    void nextRound_ShouldDealFromSameShoeAndRejectUnsettledRounds() {
+        // Given
+        GameTable table = tableWithDealerOn16(Card.of(Card.Suit.CLUBS, Card.Rank.SIX));
+        table.setShoe(Shoe.shuffled(6, new SplittableRandom(3)));
+        table.setStatus(TableStatus.SETTLED);
+        Shoe shoe = table.getShoe();
+        when(tableRepository.findById("table-1")).thenReturn(Mono.just(table));
+        when(tableRepository.updateIfUnchanged(any(GameTable.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(playerService.updatePlayersStats(anyCollection())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(tableService.nextRound("table-1"))
+                .assertNext(saved -> {
+                    assertEquals(2, saved.getRound());
+                    assertSame(shoe, saved.getShoe());
+                    saved.getSeats().forEach(seat -> assertEquals(2, seat.getPlayerCards().size()));
+                    assertFalse(saved.getSeats().get(0).isStanding());
+                })
+                .verifyComplete();
+
+        table.setStatus(TableStatus.IN_PROGRESS);
+        StepVerifier.create(tableService.nextRound("table-1"))
+                .expectError(InvalidGameException.class)
+                .verify();
+    }
+
+    @Test
+    void decksFor_ShouldLeaveRoomForTheLongestPossibleHands() {
+        // When & Then: es pot demanar carta amb 21, i amb més baralles hi ha més asos
+        assertEquals(12, TableServiceImplement.maxCardsPerHand(1));
+        assertEquals(22, TableServiceImplement.maxCardsPerHand(6));
+        assertEquals(6, TableServiceImplement.decksFor(7, 6));
+        assertEquals(3, TableServiceImplement.decksFor(7, 1));
+        assertTrue(TableServiceImplement.decksFor(7, 1) * Card.DECK_SIZE
+                >= TableServiceImplement.cardsPerRound(7, TableServiceImplement.decksFor(7, 1)));
+    }
+
+    // Tres seients: el 0 encara juga (20), el 1 s'ha passat i el 2 ja està plantat (18); la casa té 16
+    private GameTable tableWithDealerOn16(Card nextCard) {
+        List<Seat> seats = new ArrayList<>();
+        seats.add(seat("1", GameStatus.IN_PROGRESS, false,
+                Card.of(Card.Suit.HEARTS, Card.Rank.KING), Card.of(Card.Suit.HEARTS, Card.Rank.QUEEN)));
+        seats.add(seat("2", GameStatus.PLAYER_BUST, false,
+                Card.of(Card.Suit.SPADES, Card.Rank.KING), Card.of(Card.Suit.SPADES, Card.Rank.FIVE),
+                Card.of(Card.Suit.SPADES, Card.Rank.NINE)));
+        seats.add(seat("3", GameStatus.IN_PROGRESS, true,
+                Card.of(Card.Suit.DIAMONDS, Card.Rank.TEN), Card.of(Card.Suit.DIAMONDS, Card.Rank.EIGHT)));
+
+        List<Card> dealerCards = new ArrayList<>(List.of(Card.of(Card.Suit.CLUBS, Card.Rank.NINE),
+                Card.of(Card.Suit.CLUBS, Card.Rank.SEVEN)));
+        return GameTable.builder()
+                .id("table-1")
+                .seats(seats)
+                .dealerCards(dealerCards)
+                .dealerHand(HandValue.of(dealerCards))
+                .dealerScore(16)
+                .status(TableStatus.IN_PROGRESS)
+                .round(1)
+                .shoe(new Shoe(new byte[]{(byte) nextCard.getCode()}, 0))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .version(2L)
+                .build();
+    }
+
+    private Seat seat(String playerId, GameStatus status, boolean standing, Card... cards) {
+        List<Card> playerCards = new ArrayList<>(List.of(cards));
+        HandValue hand = HandValue.of(playerCards);
+        return Seat.builder()
+                .playerId(playerId)
+                .playerName("Player" + playerId)
+                .playerCards(playerCards)
+                .playerHand(hand)
+                .playerScore(hand.getScore())
+                .status(status)
+                .standing(standing)
+                .bet(10.0)
+                .winnings(status == GameStatus.PLAYER_BUST ? -10.0 : 0.0)
+                .build();
+    }
+
+    private CreateGameRequest seatRequest(String name) {
+        CreateGameRequest request = new CreateGameRequest();
+        request.setPlayerName(name);
+        return request;
+    }
+
+    private Player player(Long id, String name) {
+        return Player.builder().id(id).name(name).build();
+    }
+
+    private PlayRequest play(PlayRequest.PlayAction action) {
+        PlayRequest request = new PlayRequest();
+        request.setAction(action);
+        return request;
+    }
+}
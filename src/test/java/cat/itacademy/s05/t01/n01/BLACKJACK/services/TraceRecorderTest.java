@@ -0,0 +1,110 @@
+package cat.itacademy.s05.t01.n01.BLACKJACK.services;
+
+import cat.itacademy.s05.t01.n01.BLACKJACK.config.TracingProperties;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceRecorderTest {
+
+    private static final long BASE_MILLIS = 1_700_000_000_000L;
+
+    private TracingProperties properties;
+    private TraceRecorder recorder;
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TracingProperties();
+        properties.setMaxTraces(2);
+        recorder = new TraceRecorder(properties);
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(recorder))
+                .build();
+        tracer = tracerProvider.get("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void export_WhenRootEnds_ShouldRecordWholeTraceInStartOrder() {
+        // Given
+        Span request = span("http post /game/{id}/play", null, 0);
+        Span play = span("blackjack.game.play", request, 2);
+        Span find = span("games.find", play, 3);
+        find.end(BASE_MILLIS + 10, TimeUnit.MILLISECONDS);
+        Span update = span("games.findAndModify", play, 11);
+        update.end(BASE_MILLIS + 40, TimeUnit.MILLISECONDS);
+        play.end(BASE_MILLIS + 45, TimeUnit.MILLISECONDS);
+
+        // When
+        request.end(BASE_MILLIS + 50, TimeUnit.MILLISECONDS);
+
+        // Then
+        List<TraceRecorder.RecordedTrace> traces = recorder.recent();
+        assertEquals(1, traces.size());
+        TraceRecorder.RecordedTrace trace = traces.getFirst();
+        assertEquals("http post /game/{id}/play", trace.name());
+        assertEquals(Duration.ofMillis(50), trace.duration());
+        assertEquals(List.of("http post /game/{id}/play", "blackjack.game.play", "games.find", "games.findAndModify"),
+                trace.spans().stream().map(TraceRecorder.RecordedSpan::name).toList());
+    }
+
+    @Test
+    void breakdown_ShouldIndentChildrenUnderTheirParent() {
+        // Given
+        Span request = span("http post /game/new", null, 0);
+        Span create = span("blackjack.game.create", request, 1);
+        Span insert = span("games.insert", create, 5);
+        insert.end(BASE_MILLIS + 25, TimeUnit.MILLISECONDS);
+        create.end(BASE_MILLIS + 30, TimeUnit.MILLISECONDS);
+        request.end(BASE_MILLIS + 31, TimeUnit.MILLISECONDS);
+
+        // When
+        String breakdown = recorder.breakdown(recorder.recent().getFirst());
+
+        // Then
+        String[] lines = breakdown.split("\\R");
+        assertTrue(lines[0].startsWith("http post /game/new took 31.0 ms (trace "));
+        assertTrue(lines[1].endsWith("  http post /game/new"));
+        assertTrue(lines[2].endsWith("    blackjack.game.create"));
+        assertTrue(lines[3].contains("+5.0 ms"));
+        assertTrue(lines[3].contains("20.0 ms"));
+        assertTrue(lines[3].endsWith("      games.insert"));
+    }
+
+    @Test
+    void recent_ShouldKeepOnlyTheNewestTraces() {
+        // When
+        for (String name : List.of("first", "second", "third")) {
+            span(name, null, 0).end(BASE_MILLIS + 1, TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertEquals(List.of("third", "second"),
+                recorder.recent().stream().map(TraceRecorder.RecordedTrace::name).toList());
+    }
+
+    // Temps fixos perquè les durades del test siguin exactes (un inici 0 l'SDK el pren com "ara")
+    private Span span(String name, Span parent, long startMillis) {
+        return tracer.spanBuilder(name)
+                .setParent(parent == null ? Context.root() : Context.root().with(parent))
+                .setStartTimestamp(BASE_MILLIS + startMillis, TimeUnit.MILLISECONDS)
+                .startSpan();
+    }
+}